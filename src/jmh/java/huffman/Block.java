@@ -0,0 +1,101 @@
+package huffman;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to hold one block of text and what each stage of encoding makes from it, so that
+ * every stage can be benchmarked on its own with the output of the stage before it as its input.
+ */
+@State(Scope.Benchmark)
+public class Block {
+
+	//The shape of the text, which is one of the shapes made by Corpus.
+	@Param({Corpus.ENGLISH, Corpus.LOGS, Corpus.RANDOM, Corpus.REPETITIVE})
+	public String corpus;
+
+	//The number of chars in the block, which is a whole block by default.
+	@Param({"1048576"})
+	public int size;
+
+	//The size of the block in megabytes (2^20 bytes), which each benchmark adds to StageThroughput.
+	public double megabytes;
+
+	//The text of the block, and the text after substitution.
+	public String text;
+	public String compressed;
+
+	//The frequency of each char of the text after substitution, and the Huffman tree built from them.
+	public int[] freqs;
+	public Node tree;
+
+	//The canonical code of the block, its binary value and number of bits for each char, and its longest code length.
+	public CanonicalCode code;
+	public int[] codes;
+	public int[] lengths;
+	public int maxLength;
+
+	//The encoded bits of the text after substitution.
+	public ByteBuffer bits;
+
+	//The chars of the text, which the match finder parses.
+	public char[] chars;
+
+	/*
+	 * The whole encoded block, written as one stream, as HuffmanEncode.STREAMS interleaved streams, and compressed 
+	 * with LZ77 instead of substitution. These are never stored raw, even for random text, so that the decode 
+	 * benchmarks always time the Huffman decoders.
+	 */
+	public byte[] encodedBlock;
+	public byte[] interleavedBlock;
+	public byte[] matchBlock;
+
+	/**
+	 * Runs every stage of encoding once, the same way HuffmanEncode.encodeBlock does.
+	 * @throws IOException If the bits could not be written.
+	 */
+	@Setup(Level.Trial)
+	public void encode() throws IOException {
+		megabytes = size / (double)(1 << 20);
+		text = Corpus.make(corpus, size);
+		chars = text.toCharArray();
+		compressed = Optimization.compress(text);
+		freqs = HuffmanEncode.countChars(compressed);
+		tree = HuffmanEncode.makeTree(freqs);
+
+		codes = new int[Character.MAX_VALUE + 1];
+		lengths = new int[Character.MAX_VALUE + 1];
+		HuffmanEncode.charsToBinary(tree, 0, 0, codes, lengths);
+
+		code = CanonicalCode.fromLengths(lengths);
+		code.fillTables(codes, lengths);
+
+		for (int i = 0; i < lengths.length; i++) {
+			maxLength = Math.max(maxLength, lengths[i]);
+		}
+
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(compressed.length());
+		HuffmanEncode.writeBits(compressed, codes, lengths, new BitWriter(encoded));
+		bits = ByteBuffer.wrap(encoded.toByteArray());
+
+		EncodeSettings settings = new EncodeSettings();
+		HuffmanCompressor compressor = new HuffmanCompressor(settings);
+		compressor.storeIncompressible = false;
+		encodedBlock = compressor.encodeBlock(text, settings, new CompressionStats());
+
+		settings.interleaved = true;
+		interleavedBlock = compressor.encodeBlock(text, settings, new CompressionStats());
+
+		settings.interleaved = false;
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+		matchBlock = compressor.encodeBlock(text, settings, new CompressionStats());
+	}
+}
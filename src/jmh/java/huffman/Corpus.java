@@ -0,0 +1,130 @@
+package huffman;
+
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to make the text the benchmarks are run on. Each shape of text is made from a fixed
+ * seed, so every run of the benchmarks compresses exactly the same text.
+ */
+public class Corpus {
+
+	//The shapes of text that can be made, which are the values of the corpus parameter of the benchmarks.
+	public static final String ENGLISH = "english";
+	public static final String LOGS = "logs";
+	public static final String RANDOM = "random";
+	public static final String REPETITIVE = "repetitive";
+
+	private static final String[] WORDS = {
+		"the", "of", "and", "to", "a", "in", "that", "he", "was", "his", "it", "with", "had", "is", "for", "as", "not",
+		"at", "her", "on", "but", "she", "him", "be", "said", "by", "all", "they", "which", "from", "have", "were",
+		"prince", "what", "this", "would", "one", "so", "there", "who", "been", "no", "an", "only", "when", "their",
+		"them", "are", "into", "could", "now", "pierre", "face", "again", "natasha", "himself", "french", "went",
+		"andrew", "thought", "room", "princess", "army", "before", "very", "looked", "moscow", "emperor", "about",
+		"countess", "rostov", "something", "without", "everything", "nicholas", "battle", "understand", "napoleon"
+	};
+
+	private static final String[] LEVELS = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+	private static final String[] PATHS = {"/api/items", "/api/users", "/api/orders", "/health", "/login"};
+	private static final String[] METHODS = {"GET", "GET", "GET", "POST", "PUT", "DELETE"};
+	private static final int[] STATUSES = {200, 200, 200, 200, 201, 204, 304, 404, 500};
+
+	/**
+	 * Makes the text of a shape.
+	 * @param shape The shape of the text: ENGLISH, LOGS, RANDOM or REPETITIVE.
+	 * @param length The number of chars in the text.
+	 * @return The text.
+	 */
+	public static String make(String shape, int length) {
+		Random random = new Random(42);
+		StringBuilder strBuild = new StringBuilder(length + 256);
+
+		switch (shape) {
+			case ENGLISH:
+				english(random, strBuild, length);
+				break;
+			case LOGS:
+				logs(random, strBuild, length);
+				break;
+			case RANDOM:
+
+				//Chars between 0 and 255 inclusive, like the raw bytes of a file compressed in bytes mode.
+				for (int i = 0; i < length; i++) {
+					strBuild.append((char)random.nextInt(256));
+				}
+				break;
+			case REPETITIVE:
+				repetitive(random, strBuild, length);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown corpus: " + shape);
+		}
+
+		strBuild.setLength(length);
+		return strBuild.toString();
+	}
+
+	/**
+	 * Makes sentences of words that are picked with a skewed distribution, so common words are far more common than
+	 * rare ones, as they are in English.
+	 */
+	private static void english(Random random, StringBuilder strBuild, int length) {
+		while (strBuild.length() < length) {
+			int sentenceLength = 4 + random.nextInt(16);
+
+			for (int i = 0; i < sentenceLength; i++) {
+				double skew = random.nextDouble();
+				String word = WORDS[(int)(skew * skew * skew * WORDS.length)];
+
+				if (i == 0) {
+					strBuild.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+				}
+				else {
+					strBuild.append(' ').append(word);
+				}
+			}
+
+			strBuild.append(random.nextInt(8) == 0 ? ".\n\n" : ". ");
+		}
+	}
+
+	/**
+	 * Makes lines of a web server log, with a timestamp, a level, a thread, a request and how long it took.
+	 */
+	private static void logs(Random random, StringBuilder strBuild, int length) {
+		long millis = 1_700_000_000_000L;
+
+		while (strBuild.length() < length) {
+			millis += random.nextInt(50);
+
+			strBuild.append(Instant.ofEpochMilli(millis)).append(' ')
+					.append(LEVELS[random.nextInt(LEVELS.length)]).append(" [worker-").append(random.nextInt(16))
+					.append("] RequestHandler - ").append(METHODS[random.nextInt(METHODS.length)]).append(' ')
+					.append(PATHS[random.nextInt(PATHS.length)]).append('/').append(random.nextInt(100000)).append(' ')
+					.append(STATUSES[random.nextInt(STATUSES.length)]).append(' ').append(random.nextInt(500))
+					.append("ms\n");
+		}
+	}
+
+	/**
+	 * Makes the same short record over and over, with a counter and the odd changed char so that it is not a single
+	 * repeated string.
+	 */
+	private static void repetitive(Random random, StringBuilder strBuild, int length) {
+		String record = "<record type=\"sample\" status=\"ok\">0000000000</record>\n";
+		int counterEnd = record.indexOf('<', 1);
+
+		for (int n = 0; strBuild.length() < length; n++) {
+			int start = strBuild.length();
+			strBuild.append(record);
+
+			String counter = Integer.toString(n % 1000);
+			strBuild.replace(start + counterEnd - counter.length(), start + counterEnd, counter);
+
+			if (random.nextInt(64) == 0) {
+				strBuild.setCharAt(start + random.nextInt(record.length() - 1), (char)('a' + random.nextInt(26)));
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package huffman;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to benchmark each stage of decoding a block on its own: decoding the bits (which 
+ * also expands the substituted substrings as it goes), and expanding the substituted substrings of a string. Whole 
+ * blocks are also decoded, both as one stream and as interleaved streams, and compressed with LZ77, to compare them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodeBenchmark {
+
+	//The decompressor each thread decodes with, whose table and arrays are reused like in a long-lived service.
+	private HuffmanDecompressor decompressor = new HuffmanDecompressor();
+
+	@Benchmark
+	public int decodeSymbols(Block block, StageThroughput throughput) {
+		throughput.megabytes += block.megabytes;
+		return decompressor.decodeSymbols(block.code, block.maxLength, block.bits, block.compressed.length(), 
+				block.size, decompressor.stats);
+	}
+
+	@Benchmark
+	public int decodeBlock(Block block, StageThroughput throughput) throws IOException {
+		throughput.megabytes += block.megabytes;
+		ByteBuffer in = ByteBuffer.wrap(block.encodedBlock);
+		return decompressor.decodeBlock(in, in.getInt(), decompressor.stats);
+	}
+
+	@Benchmark
+	public int decodeInterleavedBlock(Block block, StageThroughput throughput) throws IOException {
+		throughput.megabytes += block.megabytes;
+		ByteBuffer in = ByteBuffer.wrap(block.interleavedBlock);
+		return decompressor.decodeBlock(in, in.getInt(), decompressor.stats);
+	}
+
+	@Benchmark
+	public int decodeMatchBlock(Block block, StageThroughput throughput) throws IOException {
+		throughput.megabytes += block.megabytes;
+		ByteBuffer in = ByteBuffer.wrap(block.matchBlock);
+		return decompressor.decodeBlock(in, in.getInt(), decompressor.stats);
+	}
+
+	@Benchmark
+	public String decompress(Block block, StageThroughput throughput) {
+		throughput.megabytes += block.megabytes;
+		return Optimization.decompress(block.compressed);
+	}
+}
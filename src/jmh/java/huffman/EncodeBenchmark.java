@@ -0,0 +1,77 @@
+package huffman;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to benchmark each stage of encoding a block on its own: substituting substrings, 
+ * building the Huffman tree, finding the code of each char from the tree, and writing the codes as bits. Parsing the 
+ * block into LZ77 matches is benchmarked as well, to compare it with substituting substrings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodeBenchmark {
+
+	//The match finder, counter and trie of each thread, whose arrays are reused like in a long-lived service.
+	private MatchFinder matchFinder = new MatchFinder();
+	private SubstringCounter substrings = new SubstringCounter();
+	private SubstitutionTrie trie = new SubstitutionTrie();
+	private long[] substitutions = new long[Optimization.MAX_SUBSTR_LEN + 1];
+
+	@Benchmark
+	public String compress(Block block, StageThroughput throughput) {
+		throughput.megabytes += block.megabytes;
+		return Optimization.compress(block.text, substitutions, Optimization.MAX_SUBSTR_LEN, substrings, trie);
+	}
+
+	@Benchmark
+	public int parseMatches(Block block, StageThroughput throughput) {
+		throughput.megabytes += block.megabytes;
+		matchFinder.parse(block.chars, block.size);
+
+		return matchFinder.literalCount;
+	}
+
+	@Benchmark
+	public Node makeTree(Block block, StageThroughput throughput) {
+		throughput.megabytes += block.megabytes;
+		return HuffmanEncode.makeTree(block.freqs);
+	}
+
+	@Benchmark
+	public int[] charsToBinary(Block block, StageThroughput throughput) {
+		int[] codes = new int[Character.MAX_VALUE + 1];
+		int[] lengths = new int[Character.MAX_VALUE + 1];
+
+		throughput.megabytes += block.megabytes;
+		HuffmanEncode.charsToBinary(block.tree, 0, 0, codes, lengths);
+
+		return lengths;
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream writeBits(Block block, StageThroughput throughput) throws IOException {
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(block.compressed.length());
+
+		throughput.megabytes += block.megabytes;
+		HuffmanEncode.writeBits(block.compressed, block.codes, block.lengths, new BitWriter(encoded));
+
+		return encoded;
+	}
+}
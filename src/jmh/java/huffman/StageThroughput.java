@@ -0,0 +1,26 @@
+package huffman;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to count how much text each benchmark goes through. JMH reports the count per 
+ * second next to the operations per second, which gives the throughput of a stage in MB/s of original text no matter 
+ * how big its own input is.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class StageThroughput {
+
+	//The megabytes (2^20 bytes) of original text that have been through the stage during this iteration.
+	public double megabytes;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		megabytes = 0;
+	}
+}
@@ -0,0 +1,86 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress and decompress streams with an adaptive Huffman code in a single pass,
+ * alongside the block format of HuffmanEncode and HuffmanDecode. It can compress a pipe or a stream with no end, since
+ * it never needs the whole input, or even a whole block, before it writes any output.
+ */
+public class AdaptiveHuffman {
+
+	//The first four bytes of every adaptive compressed stream ("HUFA").
+	public static final int MAGIC = 0x48554641;
+
+	//The most bytes between rebuilds of the code when no interval is given.
+	public static final int DEFAULT_INTERVAL = 32768;
+
+	/**
+	 * Compresses a stream until it ends. Whenever the stream has no more bytes ready, everything compressed so far is
+	 * flushed, so a slow pipe is never held back waiting for more input.
+	 * @param input The stream to be compressed.
+	 * @param output The stream the compressed stream is written to, which is not closed.
+	 * @return The statistics of compressing the stream.
+	 * @throws IOException If the stream could not be read or the compressed stream could not be written.
+	 */
+	public static CompressionStats compress(InputStream input, OutputStream output) throws IOException {
+		AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(output);
+		byte[] buffer = new byte[BitWriter.BUFFER_SIZE];
+		int n;
+
+		while ((n = input.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+
+			if (input.available() == 0) {
+				out.flush();
+			}
+		}
+
+		out.finish();
+
+		return out.stats;
+	}
+
+	/**
+	 * Decompresses an adaptive compressed stream, writing out the bytes as soon as they are decoded.
+	 * @param input The stream the compressed stream is read from.
+	 * @param output The stream the bytes are written to, which is not closed.
+	 * @return The statistics of decompressing the stream.
+	 * @throws IOException If the compressed stream could not be read or the bytes could not be written.
+	 */
+	public static CompressionStats decompress(InputStream input, OutputStream output) throws IOException {
+		AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(input);
+		byte[] buffer = new byte[BitWriter.BUFFER_SIZE];
+		int n;
+
+		while ((n = in.read(buffer)) != -1) {
+			output.write(buffer, 0, n);
+			output.flush();
+		}
+
+		return in.stats;
+	}
+
+	/*
+	 * Compresses or decompresses standard input to standard output, so that it can be used in a pipe. The argument is
+	 * "compress" or "decompress", and the statistics are printed to standard error.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1 || !(args[0].equals("compress") || args[0].equals("decompress"))) {
+			System.err.println("Usage: AdaptiveHuffman compress|decompress < input > output");
+			return;
+		}
+
+		try {
+			OutputStream out = new FileOutputStream(FileDescriptor.out);
+			CompressionStats stats = args[0].equals("compress") ? compress(System.in, out) : decompress(System.in, out);
+
+			out.flush();
+			System.err.println(stats.toJson());
+		}
+		catch (IOException i) {
+			i.printStackTrace();
+		}
+	}
+}
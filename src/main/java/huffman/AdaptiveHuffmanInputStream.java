@@ -0,0 +1,147 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to read the bytes of a stream compressed by an AdaptiveHuffmanOutputStream. Each
+ * byte is decoded as it is read, with the same code the encoder had when it wrote the byte, so the stream takes the
+ * same memory no matter how long it is. A read returns as soon as it reaches a point where the encoder was flushed,
+ * so the bytes of a pipe are read as soon as they were written.
+ */
+public class AdaptiveHuffmanInputStream extends InputStream {
+	private InputStream in;
+	private CountingInputStream countedInput;
+	private BitReader bits;
+	private AdaptiveModel model;
+	private boolean ended;
+	private boolean closed;
+
+	//The statistics of this stream, which are complete once the end of the stream has been read or it is closed.
+	public CompressionStats stats = new CompressionStats();
+	private long start = System.nanoTime();
+
+	/**
+	 * Constructs an AdaptiveHuffmanInputStream object and reads the start of the compressed stream.
+	 * @param in The stream the compressed stream is read from.
+	 * @throws IOException If the stream does not hold an adaptive compressed stream.
+	 */
+	public AdaptiveHuffmanInputStream(InputStream in) throws IOException {
+		this.in = in;
+		countedInput = new CountingInputStream(in);
+
+		InputStream buffered = new BufferedInputStream(countedInput, BitWriter.BUFFER_SIZE);
+		DataInputStream header = new DataInputStream(buffered);
+
+		if (header.readInt() != AdaptiveHuffman.MAGIC) {
+			throw new IOException("Not an adaptive Huffman compressed stream");
+		}
+
+		int interval = header.readInt();
+
+		if (interval < 1) {
+			throw new IOException("Invalid interval in adaptive Huffman compressed stream: " + interval);
+		}
+
+		bits = new BitReader(buffered);
+		model = new AdaptiveModel(interval, true);
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] b = new byte[1];
+
+		return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+	}
+
+	/**
+	 * Decodes bytes until the array is full, the end of the stream, or a point where the encoder was flushed after at
+	 * least one byte has been decoded.
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+
+		if (len == 0) {
+			return 0;
+		}
+
+		int count = 0;
+
+		try {
+			while (count < len && !ended) {
+				int symbol = model.table.decode(bits);
+
+				if (bits.pastEnd()) {
+					throw new EOFException("Unexpected end of the adaptive Huffman compressed stream");
+				}
+
+				if (symbol == AdaptiveModel.END) {
+					ended = true;
+					finishStats(count);
+				}
+				else if (symbol == AdaptiveModel.FLUSH) {
+
+					//Skip the two bytes of zeroes and the rest of the byte written after the flush.
+					bits.peek(16);
+					bits.skip(16);
+					bits.alignToByte();
+
+					if (count > 0) {
+						break;
+					}
+				}
+				else {
+					b[off + count++] = (byte)symbol;
+					model.update(symbol);
+				}
+			}
+		}
+		catch (UncheckedIOException exc) {
+			throw exc.getCause();
+		}
+
+		if (!ended) {
+			stats.bytesOut += count;
+		}
+
+		return count == 0 ? -1 : count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		if (!ended) {
+			finishStats(0);
+		}
+
+		in.close();
+	}
+
+	/**
+	 * Fills in the statistics of the bytes that have been read.
+	 * @param count The number of bytes decoded by the current read that are not counted yet.
+	 */
+	private void finishStats(int count) {
+		stats.bytesOut += count;
+		stats.bytesIn = countedInput.count;
+		stats.rawChars = stats.bytesOut;
+		stats.symbols = stats.bytesOut;
+		stats.encodedBits = bits.bitsRead();
+		stats.totalNanos = System.nanoTime() - start;
+	}
+
+	/**
+	 * @throws IOException If the stream has been closed.
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
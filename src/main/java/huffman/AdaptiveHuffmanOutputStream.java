@@ -0,0 +1,154 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress everything written to it with an adaptive Huffman code and write it to
+ * another stream in a single pass. Each byte is encoded as soon as it is written, with the code the bytes before it
+ * built, so nothing has to be collected into blocks first and the stream takes the same memory no matter how long it
+ * is. Flushing the stream writes out every byte written so far in a form the decoder can read straight away, which
+ * makes it suited to pipes. The compressed stream can be read with an AdaptiveHuffmanInputStream.
+ */
+public class AdaptiveHuffmanOutputStream extends OutputStream {
+	private OutputStream out;
+	private CountingOutputStream countedOutput;
+	private BitWriter bits;
+	private AdaptiveModel model;
+	private boolean finished;
+	private boolean closed;
+
+	//The statistics of this stream, which are complete once it is finished.
+	public CompressionStats stats = new CompressionStats();
+	private long start = System.nanoTime();
+
+	/**
+	 * Constructs an AdaptiveHuffmanOutputStream object that rebuilds its code every DEFAULT_INTERVAL bytes.
+	 * @param out The stream the compressed stream is written to.
+	 * @throws IOException If the start of the compressed stream could not be written.
+	 */
+	public AdaptiveHuffmanOutputStream(OutputStream out) throws IOException {
+		this(out, AdaptiveHuffman.DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * Constructs an AdaptiveHuffmanOutputStream object and writes the start of the compressed stream, which is the
+	 * adaptive magic number followed by the interval.
+	 * @param out The stream the compressed stream is written to.
+	 * @param interval The most bytes between rebuilds of the code. A shorter interval follows changes in the bytes
+	 * sooner, and a longer one rebuilds less often.
+	 * @throws IOException If the start of the compressed stream could not be written.
+	 */
+	public AdaptiveHuffmanOutputStream(OutputStream out, int interval) throws IOException {
+		if (interval < 1) {
+			throw new IllegalArgumentException("Interval must be at least 1: " + interval);
+		}
+
+		this.out = out;
+		countedOutput = new CountingOutputStream(out);
+		bits = new BitWriter(countedOutput);
+		model = new AdaptiveModel(interval, false);
+
+		DataOutputStream header = new DataOutputStream(countedOutput);
+		header.writeInt(AdaptiveHuffman.MAGIC);
+		header.writeInt(interval);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		writeSymbol(b & 0xFF);
+		stats.bytesIn++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+
+		for (int i = off; i < off + len; i++) {
+			writeSymbol(b[i] & 0xFF);
+		}
+
+		stats.bytesIn += len;
+	}
+
+	/**
+	 * Writes out every byte that has been written so far, so that the decoder can read all of them without waiting
+	 * for more. A FLUSH symbol is written, followed by two bytes of zeroes so that the decoder never has to look past
+	 * them, and the last byte is filled with zeroes.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+
+		writeSymbol(AdaptiveModel.FLUSH);
+		bits.write(0, 16);
+		bits.finish();
+
+		out.flush();
+	}
+
+	/**
+	 * Writes the END symbol and everything that is left, without closing the stream the compressed stream is written
+	 * to. Nothing more can be written once the stream is finished.
+	 * @throws IOException If the end of the compressed stream could not be written.
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+
+		ensureOpen();
+
+		writeSymbol(AdaptiveModel.END);
+		bits.finish();
+		out.flush();
+
+		finished = true;
+		stats.rawChars = stats.bytesIn;
+		stats.symbols = stats.bytesIn;
+		stats.bytesOut = countedOutput.count;
+		stats.totalNanos = System.nanoTime() - start;
+	}
+
+	/**
+	 * Finishes the compressed stream and closes the stream it was written to.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		try {
+			finish();
+		}
+		finally {
+			closed = true;
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes the code of a symbol, and counts the symbol if it is a byte.
+	 * @param symbol The symbol to be written.
+	 * @throws IOException If the code could not be written.
+	 */
+	private void writeSymbol(int symbol) throws IOException {
+		bits.write(model.codes[symbol], model.lengths[symbol]);
+		stats.encodedBits += model.lengths[symbol];
+
+		if (symbol < AdaptiveModel.END) {
+			model.update(symbol);
+		}
+	}
+
+	/**
+	 * @throws IOException If the stream has been finished or closed.
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed || finished) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to keep the Huffman code of an adaptive stream. Every byte starts with a count of
+ * one, and the code is rebuilt from the counts of the bytes seen so far every so many bytes. The encoder and the
+ * decoder each keep their own model and update it with the same bytes in the same order, so their codes always match
+ * without a code table ever being written. The counts are halved once they add up to MAX_TOTAL, so the code follows
+ * the most recent bytes, and the model takes the same memory no matter how long the stream is.
+ */
+class AdaptiveModel {
+
+	//The bytes are symbols 0 to 255. END marks the end of the stream, and FLUSH marks a point where it was flushed.
+	static final int END = 256;
+	static final int FLUSH = 257;
+	static final int SYMBOLS = 258;
+
+	/*
+	 * The longest a code may be. Each rebuild fills a decoding table with 2^MAX_CODE_LENGTH entries, so this is kept
+	 * small enough that rebuilding costs little next to the bytes between rebuilds.
+	 */
+	static final int MAX_CODE_LENGTH = 12;
+
+	//The count the counts add up to before they are halved.
+	static final int MAX_TOTAL = 1 << 16;
+
+	//The first number of bytes between rebuilds, which doubles after each rebuild until it reaches the interval.
+	private static final int FIRST_INTERVAL = 256;
+
+	//The count of each symbol, indexed by the symbol, and what they add up to.
+	private int[] freqs = new int[SYMBOLS];
+	private int total;
+
+	//Every symbol, from least to greatest, since every symbol always has a code.
+	private char[] symbols = new char[SYMBOLS];
+
+	//The binary value and number of bits of the code of each symbol, indexed by the symbol.
+	int[] codes = new int[SYMBOLS];
+	int[] lengths = new int[SYMBOLS];
+
+	//The table used to decode the current code, which is only built for a decoder.
+	DecodeTable table;
+
+	//The most bytes between rebuilds, the number of bytes between the last rebuild and the next, and how many are left.
+	private int interval;
+	private int currentInterval;
+	private int untilRebuild;
+
+	/**
+	 * Constructs an AdaptiveModel object with a count of one for every symbol, and builds its first code.
+	 * @param interval The most bytes between rebuilds of the code.
+	 * @param decoding Whether the model is used to decode, and so needs a decoding table.
+	 */
+	AdaptiveModel(int interval, boolean decoding) {
+		this.interval = interval;
+		table = decoding ? new DecodeTable() : null;
+
+		for (int i = 0; i < SYMBOLS; i++) {
+			symbols[i] = (char)i;
+			freqs[i] = 1;
+		}
+
+		total = SYMBOLS;
+		rebuild();
+
+		currentInterval = Math.min(FIRST_INTERVAL, interval);
+		untilRebuild = currentInterval;
+	}
+
+	/**
+	 * Counts a symbol once it has been encoded or decoded, and rebuilds the code if it is time to.
+	 * @param symbol The symbol that was encoded or decoded.
+	 */
+	void update(int symbol) {
+		freqs[symbol]++;
+		total++;
+
+		if (--untilRebuild == 0) {
+			rebuild();
+
+			currentInterval = Math.min(currentInterval * 2, interval);
+			untilRebuild = currentInterval;
+		}
+	}
+
+	/**
+	 * Builds the code from the counts of the symbols, in the same way for the encoder and the decoder.
+	 */
+	private void rebuild() {
+
+		//Halve the counts so that older bytes matter less, keeping every count at one or more.
+		if (total > MAX_TOTAL) {
+			total = 0;
+
+			for (int i = 0; i < SYMBOLS; i++) {
+				freqs[i] = (freqs[i] + 1) / 2;
+				total += freqs[i];
+			}
+		}
+
+		Arrays.fill(lengths, 0);
+		HuffmanEncode.charsToBinary(HuffmanEncode.makeTree(freqs, symbols, SYMBOLS), 0, 0, codes, lengths);
+
+		int maxLength = 0;
+
+		for (int i = 0; i < SYMBOLS; i++) {
+			maxLength = Math.max(maxLength, lengths[i]);
+		}
+
+		if (maxLength > MAX_CODE_LENGTH) {
+			maxLength = MAX_CODE_LENGTH;
+
+			Arrays.fill(lengths, 0);
+			HuffmanEncode.packageMerge(freqs, maxLength, lengths);
+		}
+
+		//Only the code lengths of the tree are used, so ties in the tree can never make the two sides disagree.
+		CanonicalCode code = CanonicalCode.fromLengths(lengths, symbols, SYMBOLS);
+		code.fillTables(codes, lengths);
+
+		if (table != null) {
+			table.build(code, maxLength);
+		}
+	}
+}
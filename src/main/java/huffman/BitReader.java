@@ -0,0 +1,169 @@
+package huffman;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to read bits from a buffer of bytes, most significant bit first. The buffer can be a
+ * memory-mapped part of a file, so the bits are read straight from the file. The bits are kept in a 64-bit accumulator
+ * that is refilled a whole byte at a time, so reading bits does not allocate anything. Bits can also be read from a
+ * stream, such as a pipe, in which case only the bytes that are needed are waited for.
+ */
+public class BitReader {
+	private ByteBuffer bytes;
+	private int position;
+	private int limit;
+
+	//The stream the bytes are read from instead of a buffer, or null, and whether it has ended.
+	private InputStream input;
+	private boolean inputEnded;
+
+	//The next bits to be read, left aligned, and how many of them are valid.
+	private long bitBuffer;
+	private int bitCount;
+
+	//The number of bits that have been consumed so far.
+	private long bitsRead;
+
+	/**
+	 * Constructs a BitReader object that reads the bytes between the position and the limit of a buffer. The buffer 
+	 * itself is not changed.
+	 * @param bytes The buffer of bytes to read from.
+	 */
+	public BitReader(ByteBuffer bytes) {
+		this.bytes = bytes.duplicate().order(ByteOrder.BIG_ENDIAN);
+		this.position = bytes.position();
+		this.limit = bytes.limit();
+	}
+
+	/**
+	 * Constructs a BitReader object that reads the bytes of a stream as they are needed.
+	 * @param input The stream of bytes to read from.
+	 */
+	public BitReader(InputStream input) {
+		this.input = input;
+	}
+
+	/**
+	 * Fills the accumulator with whole bytes until it holds at least 57 bits or there are no bytes left. Once the bytes
+	 * run out, the missing bits read as zeroes.
+	 * @param n The number of bits that are needed.
+	 */
+	private void refill(int n) {
+		if (input != null) {
+			refillFromStream(n);
+			return;
+		}
+
+		//While at least eight bytes are left, read them at once and keep as many whole bytes as fit.
+		if (bitCount <= 56 && limit - position >= 8) {
+			int count = (64 - bitCount) >>> 3;
+
+			bitBuffer |= (bytes.getLong(position) >>> (64 - count * 8)) << (64 - bitCount - count * 8);
+			position += count;
+			bitCount += count * 8;
+		}
+
+		while (bitCount <= 56 && position < limit) {
+			bitBuffer |= (long)(bytes.get(position++) & 0xFF) << (56 - bitCount);
+			bitCount += 8;
+		}
+
+		if (position == limit) {
+			bitCount = 64;
+		}
+	}
+
+	/**
+	 * Fills the accumulator from the stream. Once n bits are held, only the bytes that have already arrived are read,
+	 * so the bits of a pipe can be read without waiting for bytes that are not needed yet. Once the stream ends, the
+	 * missing bits read as zeroes, and pastEnd tells whether any of them were consumed.
+	 * @param n The number of bits that are needed.
+	 */
+	private void refillFromStream(int n) {
+		try {
+			while (bitCount <= 56 && !inputEnded && (bitCount < n || input.available() > 0)) {
+				int b = input.read();
+
+				if (b == -1) {
+					inputEnded = true;
+				}
+				else {
+					bitBuffer |= (long)b << (56 - bitCount);
+					bitCount += 8;
+				}
+			}
+		}
+		catch (IOException exc) {
+			throw new UncheckedIOException(exc);
+		}
+	}
+
+	/**
+	 * Looks at the next bits without consuming them.
+	 * @param n The number of bits to look at, between 1 and 57 inclusive.
+	 * @return The next n bits as an integer.
+	 */
+	public long peek(int n) {
+		if (bitCount < n) {
+			refill(n);
+		}
+
+		return bitBuffer >>> (64 - n);
+	}
+
+	/**
+	 * Reads and consumes the next bits.
+	 * @param n The number of bits to read, between 0 and 31 inclusive.
+	 * @return The next n bits as an integer, or 0 if n is 0.
+	 */
+	public int read(int n) {
+		if (n == 0) {
+			return 0;
+		}
+
+		int value = (int)peek(n);
+		skip(n);
+
+		return value;
+	}
+
+	/**
+	 * Consumes bits that have already been looked at with peek.
+	 * @param n The number of bits to consume.
+	 */
+	public void skip(int n) {
+		bitBuffer <<= n;
+		bitCount -= n;
+		bitsRead += n;
+	}
+
+	/**
+	 * Consumes the bits that are left of the current byte, so the next bit read is the first bit of a byte.
+	 */
+	public void alignToByte() {
+		int n = (int)((8 - bitsRead % 8) % 8);
+
+		if (n > 0) {
+			peek(n);
+			skip(n);
+		}
+	}
+
+	/**
+	 * @return Whether more bits have been consumed than the stream held. This is always false when reading from a
+	 * buffer.
+	 */
+	public boolean pastEnd() {
+		return bitCount < 0;
+	}
+
+	/**
+	 * @return The number of bits that have been consumed so far.
+	 */
+	public long bitsRead() {
+		return bitsRead;
+	}
+}
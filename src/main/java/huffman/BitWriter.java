@@ -0,0 +1,69 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to write codes of any length as bits, most significant bit first. The bits are
+ * packed into a 64-bit accumulator and whole bytes are moved to a large buffer that is only written out when it is
+ * full, so writing a code does not allocate anything.
+ */
+public class BitWriter {
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	private OutputStream out;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+
+	//The bits that have not been moved to the buffer yet, right aligned, and how many of them there are.
+	private long bitBuffer;
+	private int bitCount;
+
+	/**
+	 * Constructs a BitWriter object that writes to a stream.
+	 * @param out The stream the bytes are written to.
+	 */
+	public BitWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes a code.
+	 * @param code The code, in the lowest length bits of the integer.
+	 * @param length The number of bits in the code, at most 32.
+	 * @throws IOException If the buffer could not be written out.
+	 */
+	public void write(int code, int length) throws IOException {
+		bitBuffer = (bitBuffer << length) | (code & 0xFFFFFFFFL);
+		bitCount += length;
+
+		//Move every whole byte in the accumulator to the buffer.
+		while (bitCount >= 8) {
+			bitCount -= 8;
+			buffer[position++] = (byte)(bitBuffer >>> bitCount);
+
+			if (position == buffer.length) {
+				out.write(buffer, 0, position);
+				position = 0;
+			}
+		}
+	}
+
+	/**
+	 * Fills the final byte with zeroes and writes out everything that is left in the buffer.
+	 * @return The number of zeroes added to fill the final byte, between 0 and 7 inclusive.
+	 * @throws IOException If the buffer could not be written out.
+	 */
+	public int finish() throws IOException {
+		int zeroesAdded = (8 - bitCount) % 8;
+
+		if (zeroesAdded > 0) {
+			write(0, zeroesAdded);
+		}
+
+		out.write(buffer, 0, position);
+		position = 0;
+
+		return zeroesAdded;
+	}
+}
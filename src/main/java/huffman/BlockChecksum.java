@@ -0,0 +1,68 @@
+package huffman;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to find the CRC32C checksum of the text of a block, which is stored in the block so
+ * the decoder can tell that the block was decoded to the same text it was encoded from. The checksum is taken over the
+ * chars of the text, each as two bytes with the high byte first, in either mode. The chars are copied into a buffer
+ * that is reused for every block, so the checksum is taken over all of them at once.
+ */
+public class BlockChecksum {
+	private CRC32C crc = new CRC32C();
+	private ByteBuffer bytes = ByteBuffer.allocate(0);
+	private CharBuffer chars = bytes.asCharBuffer();
+
+	/**
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @return The checksum of the text.
+	 */
+	public int of(char[] text, int length) {
+		ensureCapacity(length);
+		chars.clear();
+		chars.put(text, 0, length);
+
+		return checksum(length);
+	}
+
+	/**
+	 * @param text The text.
+	 * @return The checksum of the text.
+	 */
+	public int of(String text) {
+		ensureCapacity(text.length());
+		chars.clear();
+		chars.put(text, 0, text.length());
+
+		return checksum(text.length());
+	}
+
+	/**
+	 * @param length The number of chars in the text that has been put in the buffer.
+	 * @return The checksum of the text.
+	 */
+	private int checksum(int length) {
+		bytes.clear();
+		bytes.limit(length * 2);
+
+		crc.reset();
+		crc.update(bytes);
+
+		return (int)crc.getValue();
+	}
+
+	/**
+	 * Makes the buffer big enough for a text.
+	 * @param length The number of chars in the text.
+	 */
+	private void ensureCapacity(int length) {
+		if (chars.capacity() < length) {
+			bytes = ByteBuffer.allocate(length * 2);
+			chars = bytes.asCharBuffer();
+		}
+	}
+}
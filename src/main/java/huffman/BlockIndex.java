@@ -0,0 +1,144 @@
+package huffman;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to keep track of where each block starts in a compressed file, how many chars it
+ * holds and the checksum of its text. The index is written at the end of the compressed file, followed by its own
+ * offset and the magic number, so that it can be found by reading the last twelve bytes of the file.
+ */
+public class BlockIndex {
+
+	//The offset of each block in the compressed file, and the number of chars in the block before it was compressed.
+	public ArrayList<Long> offsets = new ArrayList<>();
+	public ArrayList<Integer> rawLengths = new ArrayList<>();
+
+	//The checksum of the text of each block, and the checksum of the whole file, which is written after the end marker.
+	public ArrayList<Integer> checksums = new ArrayList<>();
+	public int streamChecksum;
+
+	//The number of chars that come before each block in the text, and the number of chars in all of the blocks.
+	public ArrayList<Long> rawOffsets = new ArrayList<>();
+	public long rawTotal;
+
+	//The offset of the end of the last block in the compressed file.
+	public long blocksEnd;
+
+	//The mode the blocks were compressed in, either HuffmanEncode.MODE_CHARS or HuffmanEncode.MODE_BYTES.
+	public int mode;
+
+	/**
+	 * Adds a block to the end of the index.
+	 * @param offset The offset of the block in the compressed file.
+	 * @param rawLength The number of chars in the block before it was compressed.
+	 * @param checksum The checksum of the text of the block.
+	 */
+	public void add(long offset, int rawLength, int checksum) {
+		offsets.add(offset);
+		rawLengths.add(rawLength);
+		checksums.add(checksum);
+		rawOffsets.add(rawTotal);
+		rawTotal += rawLength;
+	}
+
+	/**
+	 * @return The number of blocks in the index.
+	 */
+	public int size() {
+		return offsets.size();
+	}
+
+	/**
+	 * @param block The number of a block.
+	 * @return The offset of the end of the block in the compressed file.
+	 */
+	public long blockEnd(int block) {
+		return block + 1 < size() ? offsets.get(block + 1) : blocksEnd;
+	}
+
+	/**
+	 * Finds the block that holds a char of the text using binary search.
+	 * @param rawOffset The offset of the char in the text.
+	 * @return The number of the block that holds the char.
+	 */
+	public int findBlock(long rawOffset) {
+		int low = 0;
+		int high = size() - 1;
+
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+
+			if (rawOffsets.get(middle) <= rawOffset) {
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Writes the index followed by the offset it was written at and the magic number.
+	 * @param out The stream to write the index to.
+	 * @param indexOffset The offset in the compressed file that the index is written at, right after the end marker
+	 * of the blocks and the checksum of the whole file.
+	 * @throws IOException If the index could not be written.
+	 */
+	public void write(DataOutputStream out, long indexOffset) throws IOException {
+		blocksEnd = indexOffset - 8;
+		out.writeInt(size());
+
+		for (int i = 0; i < size(); i++) {
+			out.writeLong(offsets.get(i));
+			out.writeInt(rawLengths.get(i));
+			out.writeInt(checksums.get(i));
+		}
+
+		out.writeLong(indexOffset);
+		out.writeInt(HuffmanEncode.MAGIC);
+	}
+
+	/**
+	 * Reads the index from the end of a compressed file.
+	 * @param file The compressed file.
+	 * @return The index of the blocks in the file.
+	 * @throws IOException If the file is not a compressed file or the index could not be read.
+	 */
+	public static BlockIndex read(RandomAccessFile file) throws IOException {
+		file.seek(file.length() - 12);
+		long indexOffset = file.readLong();
+
+		if (file.readInt() != HuffmanEncode.MAGIC) {
+			throw new IOException("Not a Huffman compressed file");
+		}
+
+		//Map the index, which ends right before its own offset.
+		ByteBuffer in = file.getChannel().map(FileChannel.MapMode.READ_ONLY, indexOffset, file.length() - 12 - indexOffset);
+		BlockIndex index = new BlockIndex();
+		index.blocksEnd = indexOffset - 8;
+
+		//The checksum of the whole file is written right before the index.
+		file.seek(indexOffset - 4);
+		index.streamChecksum = file.readInt();
+
+		//The mode is written right after the magic number at the start of the file.
+		file.seek(4);
+		index.mode = file.read();
+
+		int size = in.getInt();
+
+		for (int i = 0; i < size; i++) {
+			long offset = in.getLong();
+			int rawLength = in.getInt();
+			index.add(offset, rawLength, in.getInt());
+		}
+
+		return index;
+	}
+}
@@ -0,0 +1,105 @@
+package huffman;
+
+import java.io.*;
+import java.util.zip.CRC32C;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to write a compressed file from blocks that have already been encoded. It writes the
+ * magic number and the mode first, then each block in the order it is given, and finally the end marker, the checksum
+ * of the whole file and the index of where each block starts. The file is written straight to the stream, so a stream
+ * that is slow to write to small pieces at a time should be buffered first. Blocks can also be added to a copy of a
+ * file that was already written, in which case the end of the file is written again after the new blocks.
+ */
+public class BlockWriter {
+	private DataOutputStream out;
+
+	//The offset of the next block in the compressed file, which starts after the magic number and the mode.
+	private long offset = 5;
+	private BlockIndex index = new BlockIndex();
+
+	/*
+	 * The checksum of the checksums of every block in order. Together with the checksum of each block, it tells that
+	 * every block was decoded to the right text and that no block is missing or out of order.
+	 */
+	private CRC32C streamChecksum = new CRC32C();
+
+	/**
+	 * Constructs a BlockWriter object and writes the start of the compressed file.
+	 * @param output The stream the compressed file is written to.
+	 * @param mode The mode the blocks are compressed in, either HuffmanEncode.MODE_CHARS or HuffmanEncode.MODE_BYTES.
+	 * @throws IOException If the start of the file could not be written.
+	 */
+	public BlockWriter(OutputStream output, int mode) throws IOException {
+		out = new DataOutputStream(output);
+
+		out.writeInt(HuffmanEncode.MAGIC);
+		out.writeByte(mode);
+	}
+
+	/**
+	 * Constructs a BlockWriter object that adds blocks to a copy of an existing compressed file. The new blocks are 
+	 * written from where the end marker of the file was, and finish writes the end marker, the checksum of the whole 
+	 * file and the index again with the new blocks added, so the file reads the same as if every block had been 
+	 * written at once.
+	 * @param output The stream the rest of the file is written to, starting at the end of the last block of the file.
+	 * @param index The index read from the file, which the new blocks are added to.
+	 * @throws IOException If the checksums of the blocks in the index do not match the checksum of the file.
+	 */
+	public BlockWriter(OutputStream output, BlockIndex index) throws IOException {
+		out = new DataOutputStream(output);
+		offset = index.blocksEnd;
+		this.index = index;
+
+		for (int checksum : index.checksums) {
+			streamChecksum.update(checksum >>> 24);
+			streamChecksum.update(checksum >>> 16);
+			streamChecksum.update(checksum >>> 8);
+			streamChecksum.update(checksum);
+		}
+
+		if ((int)streamChecksum.getValue() != index.streamChecksum) {
+			throw new IOException("Checksum of the file does not match, the file is damaged");
+		}
+	}
+
+	/**
+	 * Writes an encoded block and adds it to the index.
+	 * @param encoded The bytes of the encoded block, which start with the number of chars and the checksum of the text.
+	 * @param rawLength The number of chars in the block before it was compressed.
+	 * @throws IOException If the block could not be written.
+	 */
+	public void writeBlock(byte[] encoded, int rawLength) throws IOException {
+		int checksum = (encoded[4] & 0xFF) << 24 | (encoded[5] & 0xFF) << 16 | (encoded[6] & 0xFF) << 8 
+				| (encoded[7] & 0xFF);
+
+		index.add(offset, rawLength, checksum);
+		streamChecksum.update(encoded, 4, 4);
+		out.write(encoded);
+		offset += encoded.length;
+	}
+
+	/**
+	 * @return The number of blocks that have been written.
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Ends the file by writing the end marker, the checksum of the whole file and the index, and flushes the stream the
+	 * file is written to, which is not closed.
+	 * @throws IOException If the end of the file could not be written.
+	 */
+	public void finish() throws IOException {
+
+		//A block with no chars marks the end of the blocks.
+		out.writeInt(0);
+		index.streamChecksum = (int)streamChecksum.getValue();
+		out.writeInt(index.streamChecksum);
+		offset += 8;
+
+		index.write(out, offset);
+		out.flush();
+	}
+}
@@ -0,0 +1,48 @@
+package huffman;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to share the direct buffers that decoded text is written through. A direct buffer
+ * lives outside the heap, so the text in it never has to be collected, and a channel can write it to a file without
+ * copying it first. Making a direct buffer is slow and its memory is only freed by the garbage collector, so buffers
+ * are given back to the pool once they are no longer needed and handed out again.
+ */
+public class BufferPool {
+
+	//The number of bytes in each buffer.
+	public static final int BUFFER_SIZE = 1 << 20;
+
+	//The most buffers kept in the pool at once. A buffer given back to a full pool is left to the garbage collector.
+	public static final int MAX_POOLED = 16;
+
+	private static final ArrayBlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(MAX_POOLED);
+
+	/**
+	 * Takes a buffer from the pool, or makes a new one if the pool is empty.
+	 * @return An empty direct buffer of BUFFER_SIZE bytes.
+	 */
+	public static ByteBuffer acquire() {
+		ByteBuffer buffer = BUFFERS.poll();
+
+		if (buffer == null) {
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+
+		buffer.clear();
+
+		return buffer;
+	}
+
+	/**
+	 * Gives a buffer back to the pool. The buffer must not be used again after it is given back.
+	 * @param buffer A buffer that was taken from the pool.
+	 */
+	public static void release(ByteBuffer buffer) {
+		if (buffer.isDirect() && buffer.capacity() == BUFFER_SIZE) {
+			BUFFERS.offer(buffer);
+		}
+	}
+}
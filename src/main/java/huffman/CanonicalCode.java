@@ -0,0 +1,199 @@
+package huffman;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to turn the codes of a Huffman tree into canonical Huffman codes. A canonical code
+ * can be rebuilt from nothing but the code length of each char, so only a (char, length) table has to be stored in
+ * the header of the compressed file.
+ */
+public class CanonicalCode {
+
+	/*
+	 * The chars that have a code, sorted by code length and then by char value. The code of the char at index i has
+	 * lengths[i] bits and the value codes[i].
+	 */
+	public char[] symbols;
+	public int[] lengths;
+	public int[] codes;
+
+	/**
+	 * Constructs a CanonicalCode object from chars and their code lengths, and assigns the canonical codes.
+	 * @param symbols The chars that have a code, in order of char value among chars with the same code length.
+	 * @param lengths The code length of each char.
+	 */
+	public CanonicalCode(char[] symbols, int[] lengths) {
+		this.symbols = symbols;
+		this.lengths = lengths;
+		this.codes = new int[symbols.length];
+
+		sort();
+		assignCodes();
+	}
+
+	/**
+	 * Sorts the chars by code length, which is the order the canonical codes are assigned in. The sort is a stable 
+	 * counting sort, so chars with the same code length keep their order by char value.
+	 */
+	private void sort() {
+		int maxLength = 0;
+
+		for (int i = 0; i < lengths.length; i++) {
+			maxLength = Math.max(maxLength, lengths[i]);
+		}
+
+		//The index in the sorted arrays where the chars of each code length start.
+		int[] start = new int[maxLength + 2];
+
+		for (int i = 0; i < lengths.length; i++) {
+			start[lengths[i] + 1]++;
+		}
+
+		for (int length = 1; length < start.length; length++) {
+			start[length] += start[length - 1];
+		}
+
+		char[] sortedSymbols = new char[symbols.length];
+		int[] sortedLengths = new int[lengths.length];
+
+		for (int i = 0; i < symbols.length; i++) {
+			int index = start[lengths[i]]++;
+			sortedSymbols[index] = symbols[i];
+			sortedLengths[index] = lengths[i];
+		}
+
+		symbols = sortedSymbols;
+		lengths = sortedLengths;
+	}
+
+	/**
+	 * Assigns the canonical codes. The first char gets a code of all zeroes, and every following char gets the previous
+	 * code plus one, shifted left whenever the code length grows.
+	 */
+	private void assignCodes() {
+		int code = 0;
+
+		for (int i = 0; i < symbols.length; i++) {
+			if (i > 0) {
+				code = (code + 1) << (lengths[i] - lengths[i - 1]);
+			}
+
+			codes[i] = code;
+		}
+	}
+
+	/**
+	 * Builds a canonical code using the code lengths of the chars in a Huffman tree.
+	 * @param lengths The code length of each char, indexed by the char, or 0 for chars that do not occur.
+	 * @return The canonical code with the same code lengths as the Huffman tree.
+	 */
+	public static CanonicalCode fromLengths(int[] lengths) {
+		int size = 0;
+
+		for (int i = 0; i < lengths.length; i++) {
+			if (lengths[i] != 0) {
+				size++;
+			}
+		}
+
+		char[] symbols = new char[size];
+		int[] symbolLengths = new int[size];
+		int index = 0;
+
+		for (int i = 0; i < lengths.length; i++) {
+			if (lengths[i] != 0) {
+				symbols[index] = (char)i;
+				symbolLengths[index] = lengths[i];
+				index++;
+			}
+		}
+
+		return new CanonicalCode(symbols, symbolLengths);
+	}
+
+	/**
+	 * Builds a canonical code using the code lengths of the chars in a Huffman tree, looking only at the chars that 
+	 * occur.
+	 * @param lengths The code length of each char, indexed by the char.
+	 * @param symbols The chars that occur, from least to greatest.
+	 * @param count The number of chars that occur.
+	 * @return The canonical code with the same code lengths as the Huffman tree.
+	 */
+	public static CanonicalCode fromLengths(int[] lengths, char[] symbols, int count) {
+		char[] codeSymbols = Arrays.copyOf(symbols, count);
+		int[] symbolLengths = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			symbolLengths[i] = lengths[symbols[i]];
+		}
+
+		return new CanonicalCode(codeSymbols, symbolLengths);
+	}
+
+	/**
+	 * Stores the canonical code of each char, and its length, in arrays indexed by the char.
+	 * @param codeTable The array used to store the code of each char.
+	 * @param lengthTable The array used to store the code length of each char.
+	 */
+	public void fillTables(int[] codeTable, int[] lengthTable) {
+		for (int i = 0; i < symbols.length; i++) {
+			codeTable[symbols[i]] = codes[i];
+			lengthTable[symbols[i]] = lengths[i];
+		}
+	}
+
+	/**
+	 * Writes the (char, code length) table. The codes themselves are not written since they can be rebuilt.
+	 * @param out The stream to write the table to.
+	 * @throws IOException If the table could not be written.
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeInt(symbols.length);
+
+		for (int i = 0; i < symbols.length; i++) {
+			out.writeChar(symbols[i]);
+			out.writeByte(lengths[i]);
+		}
+	}
+
+	/**
+	 * Reads a (char, code length) table written by the write method and rebuilds the canonical codes from it.
+	 * @param in The stream to read the table from.
+	 * @return The canonical code stored in the table.
+	 * @throws IOException If the table could not be read.
+	 */
+	public static CanonicalCode read(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		char[] symbols = new char[size];
+		int[] lengths = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			symbols[i] = in.readChar();
+			lengths[i] = in.readUnsignedByte();
+		}
+
+		return new CanonicalCode(symbols, lengths);
+	}
+
+	/**
+	 * Reads a (char, code length) table written by the write method from a buffer, such as a memory-mapped part of a 
+	 * compressed file, and rebuilds the canonical codes from it.
+	 * @param in The buffer to read the table from, starting at its position.
+	 * @return The canonical code stored in the table.
+	 */
+	public static CanonicalCode read(ByteBuffer in) {
+		int size = in.getInt();
+		char[] symbols = new char[size];
+		int[] lengths = new int[size];
+
+		for (int i = 0; i < size; i++) {
+			symbols[i] = in.getChar();
+			lengths[i] = in.get() & 0xFF;
+		}
+
+		return new CanonicalCode(symbols, lengths);
+	}
+}
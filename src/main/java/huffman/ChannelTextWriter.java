@@ -0,0 +1,222 @@
+package huffman;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to write decoded text to a channel through a direct buffer from the BufferPool,
+ * so the text is never copied into a string or a byte array the size of the text on its way out. In chars mode the
+ * chars are encoded as UTF-8, and in bytes mode each char is written as the byte with the same value. The bytes are
+ * made in a small array that is reused for all of the text, since putting bytes in a direct buffer one at a time is
+ * much slower than copying them in at once, and the buffer is written to the channel whenever it fills up. The writer
+ * must be closed to give the buffer back, which does not close the channel.
+ */
+public class ChannelTextWriter implements Closeable {
+
+	//The number of bytes made at a time before they are copied into the buffer.
+	public static final int SCRATCH_SIZE = 1 << 16;
+
+	private WritableByteChannel channel;
+	private int mode;
+	private ByteBuffer buffer = BufferPool.acquire();
+	private byte[] scratch = new byte[SCRATCH_SIZE];
+
+	/*
+	 * A block can end between the two chars of a surrogate pair. The first char is kept here until the next block is
+	 * written, so that the pair is encoded together.
+	 */
+	private char pendingSurrogate;
+	private boolean hasPendingSurrogate;
+
+	//The number of bytes written to the channel so far.
+	public long count;
+
+	/**
+	 * Constructs a ChannelTextWriter object.
+	 * @param channel The channel the text is written to.
+	 * @param mode The mode the text was compressed in, either HuffmanEncode.MODE_CHARS or HuffmanEncode.MODE_BYTES.
+	 */
+	public ChannelTextWriter(WritableByteChannel channel, int mode) {
+		this.channel = channel;
+		this.mode = mode;
+	}
+
+	/**
+	 * Finds the channel to write to a stream through. A FileOutputStream is written through its own channel, so the
+	 * bytes go from the direct buffer to the file without being copied onto the heap. Any other stream is written
+	 * through a channel that copies the bytes to it.
+	 * @param output The stream.
+	 * @return A channel that writes to the stream, which does not have to be closed.
+	 */
+	public static WritableByteChannel channelOf(OutputStream output) {
+		if (output instanceof FileOutputStream) {
+			return ((FileOutputStream)output).getChannel();
+		}
+
+		return Channels.newChannel(output);
+	}
+
+	/**
+	 * Writes the text of a block. A surrogate that is not part of a pair is written as '?', the same as an 
+	 * OutputStreamWriter does.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @throws IOException If the buffer could not be written to the channel.
+	 */
+	public void write(char[] text, int length) throws IOException {
+		if (mode == HuffmanEncode.MODE_BYTES) {
+			writeBytes(text, length);
+			return;
+		}
+
+		byte[] bytes = scratch;
+		int written = 0;
+		int i = 0;
+
+		if (hasPendingSurrogate && length > 0) {
+			hasPendingSurrogate = false;
+
+			if (Character.isLowSurrogate(text[0])) {
+				written = putCodePoint(Character.toCodePoint(pendingSurrogate, text[0]), written);
+				i = 1;
+			}
+			else {
+				bytes[written++] = '?';
+			}
+		}
+
+		while (i < length) {
+
+			//Stop while there is still room for the longest encoding of one char, so no char is ever split.
+			int limit = bytes.length - 4;
+
+			for (; i < length && written <= limit; i++) {
+				char c = text[i];
+
+				if (c < 0x80) {
+					bytes[written++] = (byte)c;
+				}
+				else if (c < 0x800) {
+					bytes[written++] = (byte)(0xC0 | c >>> 6);
+					bytes[written++] = (byte)(0x80 | c & 0x3F);
+				}
+				else if (!Character.isSurrogate(c)) {
+					bytes[written++] = (byte)(0xE0 | c >>> 12);
+					bytes[written++] = (byte)(0x80 | c >>> 6 & 0x3F);
+					bytes[written++] = (byte)(0x80 | c & 0x3F);
+				}
+				else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text[i + 1])) {
+					written = putCodePoint(Character.toCodePoint(c, text[++i]), written);
+				}
+				else if (Character.isHighSurrogate(c) && i + 1 == length) {
+
+					//The rest of the pair can only be at the start of the next block.
+					pendingSurrogate = c;
+					hasPendingSurrogate = true;
+				}
+				else {
+					bytes[written++] = '?';
+				}
+			}
+
+			putScratch(written);
+			written = 0;
+		}
+
+		putScratch(written);
+	}
+
+	/**
+	 * Puts the four bytes of a code point above the first 65536 in the scratch array.
+	 * @param codePoint The code point made from a surrogate pair.
+	 * @param written The number of bytes in the scratch array, which must have room for four more.
+	 * @return The number of bytes in the scratch array after the code point.
+	 */
+	private int putCodePoint(int codePoint, int written) {
+		scratch[written++] = (byte)(0xF0 | codePoint >>> 18);
+		scratch[written++] = (byte)(0x80 | codePoint >>> 12 & 0x3F);
+		scratch[written++] = (byte)(0x80 | codePoint >>> 6 & 0x3F);
+		scratch[written++] = (byte)(0x80 | codePoint & 0x3F);
+
+		return written;
+	}
+
+	/**
+	 * Writes each char of the text as the byte with the same value.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @throws IOException If the buffer could not be written to the channel.
+	 */
+	private void writeBytes(char[] text, int length) throws IOException {
+		byte[] bytes = scratch;
+
+		for (int i = 0; i < length; i += bytes.length) {
+			int n = Math.min(length - i, bytes.length);
+
+			for (int j = 0; j < n; j++) {
+				bytes[j] = (byte)text[i + j];
+			}
+
+			putScratch(n);
+		}
+	}
+
+	/**
+	 * Copies the bytes made in the scratch array into the buffer, writing the buffer to the channel first if they do 
+	 * not fit.
+	 * @param length The number of bytes in the scratch array.
+	 * @throws IOException If the buffer could not be written to the channel.
+	 */
+	private void putScratch(int length) throws IOException {
+		if (buffer.remaining() < length) {
+			drain();
+		}
+
+		buffer.put(scratch, 0, length);
+	}
+
+	/**
+	 * Writes everything in the buffer to the channel and empties the buffer.
+	 * @throws IOException If the buffer could not be written to the channel.
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+			count += channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+
+	/**
+	 * Writes everything that is left to the channel once all of the text has been written. Nothing more can be
+	 * written after this.
+	 * @throws IOException If the buffer could not be written to the channel.
+	 */
+	public void finish() throws IOException {
+
+		//A surrogate at the very end of the text is not part of a pair.
+		if (hasPendingSurrogate) {
+			hasPendingSurrogate = false;
+			scratch[0] = '?';
+			putScratch(1);
+		}
+
+		drain();
+	}
+
+	/**
+	 * Gives the buffer back to the pool, without writing what is left in it. The channel is not closed.
+	 */
+	@Override
+	public void close() {
+		if (buffer != null) {
+			BufferPool.release(buffer);
+			buffer = null;
+		}
+	}
+}
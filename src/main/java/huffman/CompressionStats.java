@@ -0,0 +1,324 @@
+package huffman;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to hold statistics about compressing or decompressing a file: how long each phase 
+ * took, how many bytes went in and came out, and how close the Huffman codes came to the entropy of the text. Every 
+ * encode and decode method returns one, and the statistics of many files can be added into one object, which can be 
+ * written as JSON or registered with JMX.
+ */
+public class CompressionStats implements CompressionStatsMXBean {
+
+	/*
+	 * The phases of compressing and decompressing a file. Compressing reads the text, substitutes substrings, builds 
+	 * the Huffman codes, writes the codes as bits, and writes the blocks. Decompressing reads the blocks, builds the 
+	 * decoding tables, decodes the bits, and writes the text. Both take the checksum of the text of each block, and 
+	 * compressing first estimates from a sample of each block whether it is worth compressing.
+	 */
+	public static final int PHASE_READ = 0;
+	public static final int PHASE_SUBSTITUTION = 1;
+	public static final int PHASE_TREE = 2;
+	public static final int PHASE_BITS = 3;
+	public static final int PHASE_TABLE = 4;
+	public static final int PHASE_DECODE = 5;
+	public static final int PHASE_WRITE = 6;
+	public static final int PHASE_CHECKSUM = 7;
+	public static final int PHASE_ESTIMATE = 8;
+
+	public static final String[] PHASE_NAMES = {"read", "substitution", "tree", "bits", "table", "decode", "write", 
+			"checksum", "estimate"};
+
+	/*
+	 * The nanoseconds spent in each phase, indexed by the phase. Blocks are encoded in parallel, so the phases of 
+	 * encoding blocks are added up over every thread and can take longer than totalNanos in all.
+	 */
+	public long[] phaseNanos = new long[PHASE_NAMES.length];
+	public long totalNanos;
+
+	//The number of blocks, the bytes of the input and the output, and the number of chars in the text.
+	public long blocks;
+	public long bytesIn;
+	public long bytesOut;
+	public long rawChars;
+
+	//The number of chars that were encoded with Huffman codes after substitution, and the number of bits they took up.
+	public long symbols;
+	public long encodedBits;
+
+	/*
+	 * The smallest number of bits the symbols could take up with codes made for the frequencies of each block (the 
+	 * entropy of each block times its number of symbols). This is only known when compressing.
+	 */
+	public double entropyBits;
+
+	//The total length of the codes in the code tables of every block, and the number of codes.
+	public long codeLengthSum;
+	public long codeCount;
+
+	/*
+	 * The number of substrings that were replaced with a char, indexed by the length of the substring. This is only 
+	 * known when compressing.
+	 */
+	public long[] substitutions = new long[Optimization.MAX_SUBSTR_LEN + 1];
+
+	//The number of matches in blocks compressed with LZ77, and the number of chars they replaced.
+	public long matches;
+	public long matchedChars;
+
+	//The number of blocks that were stored raw, and the number of blocks that skipped the stage before Huffman codes.
+	public long storedBlocks;
+	public long skippedStages;
+
+	/**
+	 * Adds the time since a phase started to the phase.
+	 * @param phase The phase.
+	 * @param start The value of System.nanoTime when the phase started.
+	 * @return The value of System.nanoTime now, which is when the next phase starts.
+	 */
+	public long addPhase(int phase, long start) {
+		long now = System.nanoTime();
+		phaseNanos[phase] += now - start;
+
+		return now;
+	}
+
+	/**
+	 * Adds the statistics of another file or block to these statistics.
+	 * @param other The statistics to add.
+	 */
+	public synchronized void add(CompressionStats other) {
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] += other.phaseNanos[i];
+		}
+
+		for (int i = 0; i < substitutions.length; i++) {
+			substitutions[i] += other.substitutions[i];
+		}
+
+		totalNanos += other.totalNanos;
+		blocks += other.blocks;
+		bytesIn += other.bytesIn;
+		bytesOut += other.bytesOut;
+		rawChars += other.rawChars;
+		symbols += other.symbols;
+		encodedBits += other.encodedBits;
+		entropyBits += other.entropyBits;
+		codeLengthSum += other.codeLengthSum;
+		codeCount += other.codeCount;
+		matches += other.matches;
+		matchedChars += other.matchedChars;
+		storedBlocks += other.storedBlocks;
+		skippedStages += other.skippedStages;
+	}
+
+	/**
+	 * Adds the entropy of a block, found from the frequency of each of its symbols.
+	 * @param freqs The frequency of each symbol, indexed by the symbol.
+	 * @param symbols The symbols that occur in the block.
+	 * @param distinct The number of symbols that occur in the block.
+	 * @param count The number of symbols in the block.
+	 */
+	public void addEntropy(int[] freqs, char[] symbols, int distinct, int count) {
+
+		//The entropy times the count is the sum of -freq * log2(freq / count) over every symbol.
+		double bits = 0;
+
+		for (int i = 0; i < distinct; i++) {
+			int freq = freqs[symbols[i]];
+			bits -= freq * Math.log((double)freq / count);
+		}
+
+		entropyBits += bits / Math.log(2);
+	}
+
+	/**
+	 * @param bytes A number of bytes.
+	 * @return The number of megabytes (2^20 bytes) per second for the bytes over the whole time.
+	 */
+	private double megabytesPerSecond(long bytes) {
+		return totalNanos == 0 ? 0 : bytes / (double)(1 << 20) / (totalNanos / 1e9);
+	}
+
+	@Override
+	public synchronized long getBlocks() {
+		return blocks;
+	}
+
+	@Override
+	public synchronized long getBytesIn() {
+		return bytesIn;
+	}
+
+	@Override
+	public synchronized long getBytesOut() {
+		return bytesOut;
+	}
+
+	@Override
+	public synchronized long getTotalMillis() {
+		return totalNanos / 1000000;
+	}
+
+	/**
+	 * @return The milliseconds spent in each phase, by the name of the phase.
+	 */
+	@Override
+	public synchronized Map<String, Long> getPhaseMillis() {
+		Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+		for (int i = 0; i < PHASE_NAMES.length; i++) {
+			phaseMillis.put(PHASE_NAMES[i], phaseNanos[i] / 1000000);
+		}
+
+		return phaseMillis;
+	}
+
+	/**
+	 * @return The megabytes (2^20 bytes) of input per second.
+	 */
+	@Override
+	public synchronized double getInputMegabytesPerSecond() {
+		return megabytesPerSecond(bytesIn);
+	}
+
+	/**
+	 * @return The megabytes (2^20 bytes) of output per second.
+	 */
+	@Override
+	public synchronized double getOutputMegabytesPerSecond() {
+		return megabytesPerSecond(bytesOut);
+	}
+
+	/**
+	 * @return The fewest bits per symbol that codes made for each block could take up on average.
+	 */
+	@Override
+	public synchronized double getEntropyBitsPerSymbol() {
+		return symbols == 0 ? 0 : entropyBits / symbols;
+	}
+
+	/**
+	 * @return The bits per symbol that the Huffman codes actually took up, including the zeroes that fill the final 
+	 * byte of each block.
+	 */
+	@Override
+	public synchronized double getBitsPerSymbol() {
+		return symbols == 0 ? 0 : (double)encodedBits / symbols;
+	}
+
+	/**
+	 * @return The average length of the codes in the code tables, where each code counts once no matter how often its 
+	 * symbol occurs.
+	 */
+	@Override
+	public synchronized double getAverageCodeLength() {
+		return codeCount == 0 ? 0 : (double)codeLengthSum / codeCount;
+	}
+
+	@Override
+	public synchronized long[] getSubstitutions() {
+		return substitutions.clone();
+	}
+
+	@Override
+	public synchronized long getMatches() {
+		return matches;
+	}
+
+	@Override
+	public synchronized long getMatchedChars() {
+		return matchedChars;
+	}
+
+	@Override
+	public synchronized long getStoredBlocks() {
+		return storedBlocks;
+	}
+
+	@Override
+	public synchronized long getSkippedStages() {
+		return skippedStages;
+	}
+
+	@Override
+	public String getJson() {
+		return toJson();
+	}
+
+	/**
+	 * Registers these statistics with the platform MBean server, so that they can be read through JMX. The statistics 
+	 * of each file can then be added to them as it is compressed.
+	 * @param name The object name to register them under, such as "huffman:type=CompressionStats,name=encode".
+	 * @throws JMException If the name is not valid or is already registered.
+	 */
+	public void register(String name) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+	}
+
+	/**
+	 * @return The statistics as a JSON object.
+	 */
+	public synchronized String toJson() {
+		StringBuilder json = new StringBuilder("{");
+
+		json.append("\"blocks\":").append(blocks);
+		json.append(",\"bytesIn\":").append(bytesIn);
+		json.append(",\"bytesOut\":").append(bytesOut);
+		json.append(",\"rawChars\":").append(rawChars);
+		json.append(",\"symbols\":").append(symbols);
+		json.append(",\"totalMillis\":").append(getTotalMillis());
+
+		json.append(",\"phaseMillis\":{");
+
+		for (int i = 0; i < PHASE_NAMES.length; i++) {
+			json.append(i == 0 ? "" : ",").append('"').append(PHASE_NAMES[i]).append("\":");
+			json.append(phaseNanos[i] / 1000000);
+		}
+
+		json.append('}');
+
+		json.append(",\"inputMegabytesPerSecond\":").append(format(getInputMegabytesPerSecond()));
+		json.append(",\"outputMegabytesPerSecond\":").append(format(getOutputMegabytesPerSecond()));
+		json.append(",\"entropyBitsPerSymbol\":").append(format(getEntropyBitsPerSymbol()));
+		json.append(",\"bitsPerSymbol\":").append(format(getBitsPerSymbol()));
+		json.append(",\"averageCodeLength\":").append(format(getAverageCodeLength()));
+
+		//The substitutions are keyed by the length of the substring, from MIN_SUBSTR_LEN to MAX_SUBSTR_LEN.
+		json.append(",\"substitutions\":{");
+
+		for (int length = Optimization.MIN_SUBSTR_LEN; length <= Optimization.MAX_SUBSTR_LEN; length++) {
+			json.append(length == Optimization.MIN_SUBSTR_LEN ? "" : ",").append('"').append(length).append("\":");
+			json.append(substitutions[length]);
+		}
+
+		json.append('}');
+
+		json.append(",\"matches\":").append(matches);
+		json.append(",\"matchedChars\":").append(matchedChars);
+		json.append(",\"storedBlocks\":").append(storedBlocks);
+		json.append(",\"skippedStages\":").append(skippedStages);
+		json.append('}');
+
+		return json.toString();
+	}
+
+	/**
+	 * @param value A number.
+	 * @return The number with four decimal places, using a dot as the decimal point no matter the locale.
+	 */
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.4f", value);
+	}
+
+	@Override
+	public String toString() {
+		return toJson();
+	}
+}
@@ -0,0 +1,42 @@
+package huffman;
+
+import java.util.Map;
+
+/**
+ * date: 10/17/2026
+ * description: This interface is used to show a CompressionStats object through JMX, once it has been registered with
+ * CompressionStats.register. Each attribute is the value of the CompressionStats method with the same name.
+ */
+public interface CompressionStatsMXBean {
+	long getBlocks();
+
+	long getBytesIn();
+
+	long getBytesOut();
+
+	long getTotalMillis();
+
+	Map<String, Long> getPhaseMillis();
+
+	double getInputMegabytesPerSecond();
+
+	double getOutputMegabytesPerSecond();
+
+	double getEntropyBitsPerSymbol();
+
+	double getBitsPerSymbol();
+
+	double getAverageCodeLength();
+
+	long[] getSubstitutions();
+
+	long getMatches();
+
+	long getMatchedChars();
+
+	long getStoredBlocks();
+
+	long getSkippedStages();
+
+	String getJson();
+}
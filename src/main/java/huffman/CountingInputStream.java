@@ -0,0 +1,57 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to count the bytes that are read from a stream.
+ */
+public class CountingInputStream extends FilterInputStream {
+
+	//The number of bytes that have been read so far.
+	public long count;
+
+	/**
+	 * Constructs a CountingInputStream object that reads from a stream.
+	 * @param in The stream to read from.
+	 */
+	public CountingInputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+
+		if (b != -1) {
+			count++;
+		}
+
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int read = in.read(b, off, len);
+
+		if (read > 0) {
+			count += read;
+		}
+
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = in.skip(n);
+		count += skipped;
+
+		return skipped;
+	}
+
+	//Marking is not supported, since bytes that are read again would be counted twice.
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
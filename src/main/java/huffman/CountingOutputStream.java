@@ -0,0 +1,33 @@
+package huffman;
+
+import java.io.*;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to count the bytes that are written to a stream.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+	//The number of bytes that have been written so far.
+	public long count;
+
+	/**
+	 * Constructs a CountingOutputStream object that writes to a stream.
+	 * @param out The stream to write to.
+	 */
+	public CountingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		count++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		count += len;
+	}
+}
@@ -0,0 +1,144 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to decode chars from a canonical Huffman code with a lookup table. The table is
+ * indexed by the next tableBits bits of the input, so every code that fits in the window is decoded with a single
+ * lookup instead of walking the Huffman tree one bit at a time. When no code is longer than MAX_TABLE_BITS, the table
+ * covers every code and no char ever needs more than one lookup. A table can be built again for another code, which
+ * reuses its arrays.
+ */
+public class DecodeTable {
+	public static final int MAX_TABLE_BITS = 15;
+
+	//The number of bits the table is indexed by.
+	private int tableBits;
+
+	/*
+	 * Each entry holds a char in its upper 16 bits and the length of its code in its lower 8 bits. An entry with a
+	 * length of 0 means that the code is longer than tableBits and has to be decoded the slow way.
+	 */
+	private int[] entries = new int[0];
+
+	/*
+	 * Used to decode codes longer than tableBits. For every code length, the first canonical code of that length,
+	 * how many codes have that length, and the index in symbols of the char with the first code.
+	 */
+	private int[] firstCode;
+	private int[] count;
+	private int[] firstIndex;
+	private char[] symbols;
+	private int maxLength;
+
+	/**
+	 * Constructs an empty DecodeTable object, which has to be built for a code before it is used.
+	 */
+	public DecodeTable() {
+	}
+
+	/**
+	 * Constructs a DecodeTable object for a canonical code.
+	 * @param code The canonical code to decode.
+	 * @param maxLength The longest code length, as written in the header of the block.
+	 */
+	public DecodeTable(CanonicalCode code, int maxLength) {
+		build(code, maxLength);
+	}
+
+	/**
+	 * Builds the table for a canonical code, replacing the code it was built for before.
+	 * @param code The canonical code to decode.
+	 * @param maxLength The longest code length, as written in the header of the block.
+	 */
+	public void build(CanonicalCode code, int maxLength) {
+		symbols = code.symbols;
+		this.maxLength = maxLength;
+
+		if (code.lengths.length > 0 && code.lengths[code.lengths.length - 1] > maxLength) {
+			throw new IllegalStateException("Huffman code longer than the longest code length in the header");
+		}
+
+		tableBits = Math.min(maxLength, MAX_TABLE_BITS);
+
+		//Entries that no code fills have to be 0, so the part of the table that is used is cleared when it is reused.
+		if (entries.length < 1 << tableBits) {
+			entries = new int[1 << tableBits];
+		}
+		else {
+			Arrays.fill(entries, 0, 1 << tableBits, 0);
+		}
+
+		if (count == null || count.length < maxLength + 1) {
+			firstCode = new int[maxLength + 1];
+			count = new int[maxLength + 1];
+			firstIndex = new int[maxLength + 1];
+		}
+		else {
+			Arrays.fill(count, 0);
+		}
+
+		for (int i = code.symbols.length - 1; i >= 0; i--) {
+			int length = code.lengths[i];
+
+			firstCode[length] = code.codes[i];
+			firstIndex[length] = i;
+			count[length]++;
+
+			/*
+			 * Fill every entry whose index starts with the code. A code of length bits covers
+			 * 2^(tableBits - length) entries.
+			 */
+			if (length <= tableBits) {
+				int start = code.codes[i] << (tableBits - length);
+				int end = start + (1 << (tableBits - length));
+
+				for (int j = start; j < end; j++) {
+					entries[j] = (code.symbols[i] << 16) | length;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Decodes the next char.
+	 * @param in The bits to decode the char from.
+	 * @return The decoded char.
+	 */
+	public char decode(BitReader in) {
+		int entry = entries[(int)in.peek(tableBits)];
+		int length = entry & 0xFF;
+
+		if (length != 0) {
+			in.skip(length);
+			return (char)(entry >>> 16);
+		}
+
+		//The code is longer than the table, so check the code lengths after tableBits one at a time.
+		for (length = tableBits + 1; length <= maxLength; length++) {
+			int offset = (int)in.peek(length) - firstCode[length];
+
+			if (offset >= 0 && offset < count[length]) {
+				in.skip(length);
+				return symbols[firstIndex[length] + offset];
+			}
+		}
+
+		throw new IllegalStateException("Invalid Huffman code");
+	}
+
+	/**
+	 * @return The entries of the table, for decoders that keep their own bits instead of using a BitReader.
+	 */
+	int[] entries() {
+		return entries;
+	}
+
+	/**
+	 * @return The number of bits the table is indexed by.
+	 */
+	int tableBits() {
+		return tableBits;
+	}
+}
@@ -0,0 +1,42 @@
+package huffman;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to hold the settings a file is compressed with. A new EncodeSettings object holds
+ * the default settings, and any of them can be changed before it is passed to HuffmanEncode.encode.
+ */
+public class EncodeSettings {
+
+	//HuffmanEncode.MODE_CHARS to compress UTF-8 text, or HuffmanEncode.MODE_BYTES to compress raw bytes.
+	public int mode = HuffmanEncode.MODE_CHARS;
+
+	/*
+	 * The longest a Huffman code is allowed to be, in bits, or 0 for no limit. A block that needs more codes than fit
+	 * in this many bits uses the smallest limit that fits them instead.
+	 */
+	public int maxCodeLength = 0;
+
+	/*
+	 * The model blocks are encoded with, or null to build a code for each block. A block with a char the model cannot
+	 * encode is still given its own code.
+	 */
+	public HuffmanModel model = null;
+
+	/*
+	 * Whether each block is split into HuffmanEncode.STREAMS interleaved bitstreams, which decode faster on one core
+	 * for a few more bytes of header. Blocks encoded with a model are never interleaved.
+	 */
+	public boolean interleaved = false;
+
+	/*
+	 * HuffmanEncode.STAGE_SUBSTITUTION or HuffmanEncode.STAGE_LZ77, the stage each block is compressed with before it 
+	 * is given Huffman codes. Blocks compressed with LZ77 are never interleaved.
+	 */
+	public int stage = HuffmanEncode.STAGE_SUBSTITUTION;
+
+	/*
+	 * How hard each block is compressed, from HuffmanEncode.LEVEL_FAST to HuffmanEncode.LEVEL_MAX. At any level, a 
+	 * block whose sample shows too few repeats skips the stage, and a block that would not shrink is stored raw.
+	 */
+	public int level = HuffmanEncode.LEVEL_MAX;
+}
@@ -0,0 +1,261 @@
+package huffman;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress or decompress every file in a directory tree at the same time. Each file
+ * is compressed on its own by a thread of a fixed pool, reusing the compressors of the batch from one file to the next.
+ * Files are only started while the memory they are expected to need fits in a budget, so a directory of large files
+ * takes as much memory as a few blocks at a time no matter how many files there are.
+ */
+public class HuffmanBatch {
+
+	//The extension added to the name of each compressed file.
+	public static final String EXTENSION = ".huf";
+
+	//The memory budget used when none is given.
+	public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+
+	/*
+	 * The memory a compressor or decompressor needs for each byte of the block it is working on (for the text, the
+	 * substituted copies of it, the substring counts and the encoded bits), and the memory it needs no matter how small
+	 * the block is (for its tables of chars).
+	 */
+	private static final long MEMORY_PER_BYTE = 48;
+	private static final long MEMORY_PER_FILE = 1L << 20;
+
+	/**
+	 * Compresses every file in a directory tree in bytes mode, so that any file can be compressed. Each file is
+	 * written to the same place in the output tree with EXTENSION added to its name.
+	 * @param input The directory tree to be compressed.
+	 * @param output The directory the compressed files are written to, which is made if it does not exist.
+	 * @param threads The number of files to compress at the same time.
+	 * @param memoryBudget The most memory, in bytes, that the files being compressed are expected to need at once.
+	 * @return The statistics of every file added together, with the total time of the whole batch.
+	 * @throws IOException If the directory tree could not be walked, or any of the files could not be compressed.
+	 */
+	public static CompressionStats compress(Path input, Path output, int threads, long memoryBudget)
+			throws IOException {
+		return run(input, output, threads, memoryBudget, true);
+	}
+
+	/**
+	 * Decompresses every file ending in EXTENSION in a directory tree. Each file is written to the same place in the
+	 * output tree without EXTENSION.
+	 * @param input The directory tree of compressed files.
+	 * @param output The directory the decompressed files are written to, which is made if it does not exist.
+	 * @param threads The number of files to decompress at the same time.
+	 * @param memoryBudget The most memory, in bytes, that the files being decompressed are expected to need at once.
+	 * @return The statistics of every file added together, with the total time of the whole batch.
+	 * @throws IOException If the directory tree could not be walked, or any of the files could not be decompressed.
+	 */
+	public static CompressionStats decompress(Path input, Path output, int threads, long memoryBudget)
+			throws IOException {
+		return run(input, output, threads, memoryBudget, false);
+	}
+
+	/**
+	 * Compresses or decompresses every file in a directory tree on a pool of threads.
+	 * @param input The directory tree of files.
+	 * @param output The directory the results are written to.
+	 * @param threads The number of files to handle at the same time.
+	 * @param memoryBudget The most memory, in bytes, that the files being handled are expected to need at once.
+	 * @param compressing Whether to compress the files, rather than decompress them.
+	 * @return The statistics of every file added together.
+	 * @throws IOException If the directory tree could not be walked, or any of the files could not be handled.
+	 */
+	private static CompressionStats run(Path input, Path output, int threads, long memoryBudget, boolean compressing)
+			throws IOException {
+		CompressionStats total = new CompressionStats();
+		long start = System.nanoTime();
+
+		List<Path> files = new ArrayList<>();
+
+		try (Stream<Path> walk = Files.walk(input)) {
+			walk.filter(Files::isRegularFile)
+					.filter(file -> compressing || file.getFileName().toString().endsWith(EXTENSION))
+					.forEach(files::add);
+		}
+
+		/*
+		 * The budget is counted in kilobytes, so that it fits in the permits of a semaphore. A file that is expected to
+		 * need more than the whole budget takes all of it, and runs once nothing else is.
+		 */
+		int budget = (int)Math.min(Integer.MAX_VALUE, Math.max(1, memoryBudget >> 10));
+		Semaphore memory = new Semaphore(budget);
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> tasks = new ArrayList<>();
+
+		/*
+		 * The compressors or decompressors of the batch, which are taken by one file at a time and put back once it is 
+		 * done, so there are never more of them than threads. Their arrays are let go along with the pool once the 
+		 * batch is done, rather than staying with threads that outlive it.
+		 */
+		ConcurrentLinkedQueue<HuffmanCompressor> compressors = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<HuffmanDecompressor> decompressors = new ConcurrentLinkedQueue<>();
+
+		try {
+			for (Path file : files) {
+				String name = input.relativize(file).toString();
+				Path target = output.resolve(compressing ? name + EXTENSION
+						: name.substring(0, name.length() - EXTENSION.length()));
+				int cost = (int)Math.min(budget, expectedMemory(Files.size(file), compressing) >> 10);
+
+				//Wait until the file fits in the budget before starting it.
+				memory.acquireUninterruptibly(cost);
+
+				tasks.add(pool.submit(() -> {
+					try {
+						total.add(handle(file, target, compressing, compressors, decompressors));
+					}
+					finally {
+						memory.release(cost);
+					}
+
+					return null;
+				}));
+			}
+
+			//Wait for every file, and report the first one that failed once the rest are done.
+			IOException failure = null;
+
+			for (int i = 0; i < tasks.size(); i++) {
+				try {
+					tasks.get(i).get();
+				}
+				catch (ExecutionException | InterruptedException exc) {
+					Throwable cause = exc instanceof ExecutionException ? exc.getCause() : exc;
+
+					if (failure == null) {
+						failure = new IOException("Could not " + (compressing ? "compress " : "decompress ")
+								+ files.get(i), cause);
+					}
+					else {
+						failure.addSuppressed(cause);
+					}
+				}
+			}
+
+			if (failure != null) {
+				throw failure;
+			}
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		//The times of the phases add up over every thread, but the total time is the time of the whole batch.
+		total.totalNanos = System.nanoTime() - start;
+
+		return total;
+	}
+
+	/**
+	 * @param size The size of a file in bytes.
+	 * @param compressing Whether the file is being compressed, rather than decompressed.
+	 * @return The memory, in bytes, that handling the file is expected to need at once.
+	 */
+	private static long expectedMemory(long size, boolean compressing) {
+
+		//A compressed file can decompress to much more than its own size, but never more than a block at a time.
+		long blockSize = Math.min(HuffmanEncode.BLOCK_SIZE, compressing ? size : size * 8);
+
+		return MEMORY_PER_FILE + blockSize * MEMORY_PER_BYTE;
+	}
+
+	/**
+	 * Compresses or decompresses one file with a compressor or decompressor of the batch, or a new one if every one of
+	 * them is in use.
+	 * @param file The file to be handled.
+	 * @param target The file the result is written to.
+	 * @param compressing Whether to compress the file, rather than decompress it.
+	 * @param compressors The compressors of the batch that are not in use.
+	 * @param decompressors The decompressors of the batch that are not in use.
+	 * @return The statistics of handling the file.
+	 * @throws IOException If the file could not be read or the result could not be written.
+	 */
+	private static CompressionStats handle(Path file, Path target, boolean compressing,
+			ConcurrentLinkedQueue<HuffmanCompressor> compressors,
+			ConcurrentLinkedQueue<HuffmanDecompressor> decompressors) throws IOException {
+		Path parent = target.getParent();
+
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		InputStream in = new FileInputStream(file.toFile());
+		OutputStream out = new FileOutputStream(target.toFile());
+
+		try {
+			if (compressing) {
+				HuffmanCompressor compressor = compressors.poll();
+
+				if (compressor == null) {
+					EncodeSettings settings = new EncodeSettings();
+					settings.mode = HuffmanEncode.MODE_BYTES;
+					compressor = new HuffmanCompressor(settings);
+				}
+
+				CompressionStats stats = compressor.compress(in, out);
+				compressors.add(compressor);
+
+				return stats;
+			}
+
+			HuffmanDecompressor decompressor = decompressors.poll();
+
+			if (decompressor == null) {
+				decompressor = new HuffmanDecompressor();
+			}
+
+			CompressionStats stats = decompressor.decompress(in, out);
+			decompressors.add(decompressor);
+
+			return stats;
+		}
+		finally {
+			in.close();
+			out.close();
+		}
+	}
+
+	/*
+	 * Compresses or decompresses a directory tree, and prints the statistics of the whole batch. The arguments are
+	 * "compress" or "decompress", the input directory, the output directory, and optionally the number of threads and
+	 * the memory budget in megabytes.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3 || !(args[0].equals("compress") || args[0].equals("decompress"))) {
+			System.out.println("Usage: HuffmanBatch compress|decompress <input directory> <output directory> "
+					+ "[threads] [memory budget in MB]");
+			return;
+		}
+
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long memoryBudget = args.length > 4 ? Long.parseLong(args[4]) << 20 : DEFAULT_MEMORY_BUDGET;
+
+		try {
+			Path input = Paths.get(args[1]);
+			Path output = Paths.get(args[2]);
+
+			CompressionStats stats = args[0].equals("compress")
+					? compress(input, output, threads, memoryBudget)
+					: decompress(input, output, threads, memoryBudget);
+
+			System.out.printf("Done! %d blocks, %d bytes in, %d bytes out in %d ms (%.2f MB/s in, %.2f MB/s out)%n",
+					stats.blocks, stats.bytesIn, stats.bytesOut, stats.getTotalMillis(),
+					stats.getInputMegabytesPerSecond(), stats.getOutputMegabytesPerSecond());
+			System.out.println(stats.toJson());
+		}
+		catch (IOException i) {
+			i.printStackTrace();
+		}
+	}
+}
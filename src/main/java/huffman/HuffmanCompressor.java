@@ -0,0 +1,1013 @@
+package huffman;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress any number of texts or payloads in the same process. The arrays used to 
+ * count the chars, hold their codes and collect the encoded bits are made once and reused by every call, so a 
+ * compressor that is kept around compresses at the speed of warmed-up code without allocating them again. A 
+ * compressor must only be used by one thread at a time.
+ */
+public class HuffmanCompressor {
+
+	//The number of bytes in the header of a stored block, before its chars.
+	private static final int STORED_HEADER_LENGTH = 18;
+
+	private EncodeSettings settings;
+
+	//The statistics of everything this compressor has compressed, which can be registered with JMX.
+	public CompressionStats stats = new CompressionStats();
+
+	/*
+	 * The frequency, binary value and number of bits of each char, indexed by the char, and the chars that occur in 
+	 * the block. Only the entries of the chars that occur are ever looked at or cleared, so a small block costs as 
+	 * little as its own chars no matter how big the arrays are.
+	 */
+	private int[] freqs = new int[Character.MAX_VALUE + 1];
+	private int[] codes = new int[Character.MAX_VALUE + 1];
+	private int[] lengths = new int[Character.MAX_VALUE + 1];
+	private char[] symbols = new char[Character.MAX_VALUE + 1];
+
+	//The encoded bits of a block, and the whole encoded block, which are emptied before each block.
+	private ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+	private BitWriter bits = new BitWriter(encoded);
+	private ByteArrayOutputStream block = new ByteArrayOutputStream();
+	private DataOutputStream blockOut = new DataOutputStream(block);
+
+	//Used to take the checksum of the text of each block.
+	private BlockChecksum checksum = new BlockChecksum();
+
+	/*
+	 * The information for decoding at the start of an interleaved block, the number of bytes in each of its streams, 
+	 * and the position in the text where each of its segments starts.
+	 */
+	private char[] strDecode = new char[Optimization.MAX_DECODE_INFO_LENGTH];
+	private int[] streamLengths = new int[HuffmanEncode.STREAMS];
+	private int[] segmentStarts = new int[HuffmanEncode.STREAMS];
+
+	//The arrays that blocks are read into, which are only made once they are needed.
+	private char[] charBlock;
+	private byte[] byteBlock;
+
+	//The counter and trie that every block is substituted with, whose tables grow to fit the longest block.
+	private SubstringCounter substrings = new SubstringCounter();
+	private SubstitutionTrie trie = new SubstitutionTrie();
+
+	/*
+	 * The chars of a block being substituted with a model, how many times each substring of a length was replaced, and
+	 * how many substrings of each length were replaced in the block by a model or by Optimization, indexed by their
+	 * length.
+	 */
+	private char[] modelChars;
+	private int[] replaced = new int[256];
+	private long[] blockSubstitutions = new long[Optimization.MAX_SUBSTR_LEN + 1];
+
+	/*
+	 * The match finder used to compress blocks with LZ77, the chars of the block it parses, and the frequency, code 
+	 * and code length of each length slot and distance slot, and the slots that occur.
+	 */
+	private MatchFinder matches;
+	private char[] matchChars;
+	private int[] lengthFreqs = new int[MatchFinder.LENGTH_SLOTS];
+	private int[] lengthCodes = new int[MatchFinder.LENGTH_SLOTS];
+	private int[] lengthLengths = new int[MatchFinder.LENGTH_SLOTS];
+	private char[] lengthSymbols = new char[MatchFinder.LENGTH_SLOTS];
+	private int[] distanceFreqs = new int[MatchFinder.DISTANCE_SLOTS];
+	private int[] distanceCodes = new int[MatchFinder.DISTANCE_SLOTS];
+	private int[] distanceLengths = new int[MatchFinder.DISTANCE_SLOTS];
+	private char[] distanceSymbols = new char[MatchFinder.DISTANCE_SLOTS];
+
+	//Used to guess from a sample of each block whether it is worth compressing, and the bytes of a stored block.
+	private SampleEstimator estimator = new SampleEstimator();
+	private byte[] storedBytes;
+
+	/*
+	 * The text of the block being encoded, and the number of bytes each of its chars is stored in, or 0 until it is 
+	 * needed. The chars are only looked at when a block might be stored raw.
+	 */
+	private String blockText;
+	private int charBytes;
+
+	/*
+	 * Whether blocks are sampled to skip the stage or store them raw, and stored raw when coding them would not make 
+	 * them smaller. Only the benchmarks of the decoders turn it off, so that every block they decode is compressed 
+	 * with the stage and given Huffman codes even if it grows.
+	 */
+	boolean storeIncompressible = true;
+
+	/**
+	 * Constructs a HuffmanCompressor object with the default settings.
+	 */
+	public HuffmanCompressor() {
+		this(new EncodeSettings());
+	}
+
+	/**
+	 * Constructs a HuffmanCompressor object.
+	 * @param settings The settings to compress with. The mode is only used when compressing a stream.
+	 */
+	public HuffmanCompressor(EncodeSettings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * Compresses and encodes one block of text. The block is made of the number of chars in the text, the checksum of 
+	 * the text, the number of chars left after substitution, the longest code length, the canonical code table, the 
+	 * number of bytes of encoded bits, and the encoded bits themselves. An interleaved block also has the number of 
+	 * bytes in each stream but the last and the position in the text of each segment but the first, right after the 
+	 * code table. Blocks do not depend on each other, so any number of them can be encoded at the same time by 
+	 * different compressors. If the settings have a model that can encode the text, the block encoded with the model 
+	 * is kept unless the block's own code is smaller, and if the settings compress with LZ77, the block is written by 
+	 * encodeMatches instead. A block that a sample shows to be incompressible, or that turns out no smaller than its 
+	 * raw chars, is stored raw, unless storeIncompressible is turned off.
+	 * @param str The text of the block.
+	 * @param settings The settings the block is compressed with.
+	 * @param stats The statistics of the block, which are filled in as it is encoded.
+	 * @return The bytes of the encoded block.
+	 * @throws IOException If the block could not be written.
+	 */
+	byte[] encodeBlock(String str, EncodeSettings settings, CompressionStats stats) throws IOException {
+		int rawLength = str.length();
+		long time = System.nanoTime();
+
+		int textChecksum = checksum.of(str);
+		time = stats.addPhase(CompressionStats.PHASE_CHECKSUM, time);
+
+		String text = str;
+		blockText = str;
+		charBytes = 0;
+
+		//Every encoded block also has to be smaller than the text stored raw, which tooBig checks on its own.
+		int limit = Integer.MAX_VALUE;
+
+		/*
+		 * A block the model can encode is encoded with the model first, and then its own code only replaces that if it
+		 * comes out smaller, so a model never makes a block bigger than it would have been without one. The model 
+		 * block is counted on its own until it is known which one is kept.
+		 */
+		byte[] modelBlock = null;
+		CompressionStats modelStats = null;
+
+		if (settings.model != null && settings.model.canEncode(str)) {
+			modelStats = new CompressionStats();
+			modelBlock = encodeWithModel(str, textChecksum, limit, settings.model, modelStats, time);
+			time = System.nanoTime();
+
+			if (modelBlock != null) {
+				limit = modelBlock.length;
+			}
+		}
+
+		int level = settings.level;
+		byte[] encodedBlock = null;
+
+		if (storeIncompressible) {
+
+			//Guess from a sample whether the block is worth compressing, and store it raw without trying if it is not.
+			estimator.sample(text);
+			time = stats.addPhase(CompressionStats.PHASE_ESTIMATE, time);
+
+			//The chars are only looked at if the sample would save next to nothing even at one byte per char.
+			if (estimator.incompressible(8) && estimator.incompressible(storedCharBytes() * 8)) {
+				return keepModelBlock(text, textChecksum, modelBlock, modelStats, stats);
+			}
+
+			//A block with too few repeats only gets Huffman codes, since the stage would cost more than it gains.
+			if (level > HuffmanEncode.LEVEL_FAST && !estimator.stageProfitable()) {
+				level = HuffmanEncode.LEVEL_FAST;
+				stats.skippedStages++;
+			}
+		}
+
+		//A text that holds every char has nothing left to mark its matches with, so it is substituted instead.
+		if (level > HuffmanEncode.LEVEL_FAST && settings.stage == HuffmanEncode.STAGE_LZ77 
+				&& parseMatches(text, level)) {
+			time = stats.addPhase(CompressionStats.PHASE_SUBSTITUTION, time);
+			encodedBlock = encodeMatches(rawLength, textChecksum, limit, settings, stats, time);
+		}
+		else {
+
+			//Substitute strings within the text with chars to further compress the block.
+			Arrays.fill(blockSubstitutions, 0);
+			str = Optimization.compress(str, blockSubstitutions, level + 1, substrings, trie);
+			time = stats.addPhase(CompressionStats.PHASE_SUBSTITUTION, time);
+
+			//Build the Huffman binary tree for the characters within the block.
+			int symbolCount = HuffmanEncode.countChars(str, freqs, symbols);
+
+			try {
+				encodedBlock = encodeSymbols(str, rawLength, textChecksum, symbolCount, limit, settings, stats, time);
+
+				//A block that is stored raw substitutes nothing, so its substitutions only count once it is kept.
+				if (encodedBlock != null) {
+					addSubstitutions(stats);
+				}
+			}
+			finally {
+
+				//Clear the entries of the chars that occurred, so the arrays are all zeroes again for the next block.
+				for (int i = 0; i < symbolCount; i++) {
+					freqs[symbols[i]] = 0;
+					lengths[symbols[i]] = 0;
+				}
+			}
+		}
+
+		if (encodedBlock == null) {
+			return keepModelBlock(text, textChecksum, modelBlock, modelStats, stats);
+		}
+
+		//The time spent on the model counts even though its block was not kept.
+		if (modelStats != null) {
+			for (int i = 0; i < stats.phaseNanos.length; i++) {
+				stats.phaseNanos[i] += modelStats.phaseNanos[i];
+			}
+		}
+
+		return encodedBlock;
+	}
+
+	/**
+	 * Ends a block that its own code could not make smaller, with the block encoded with the model if there is one, or
+	 * else by storing it raw, which is the last resort.
+	 * @param str The text of the block.
+	 * @param textChecksum The checksum of the text of the block.
+	 * @param modelBlock The block encoded with the model, or null if the model could not make it smaller.
+	 * @param modelStats The statistics of encoding the block with the model, or null if the model was not tried.
+	 * @param stats The statistics of the block.
+	 * @return The bytes of the block.
+	 * @throws IOException If the block could not be written.
+	 */
+	private byte[] keepModelBlock(String str, int textChecksum, byte[] modelBlock, CompressionStats modelStats, 
+			CompressionStats stats) throws IOException {
+		if (modelStats != null) {
+			stats.add(modelStats);
+		}
+
+		return modelBlock != null ? modelBlock : encodeStored(str, textChecksum, stats);
+	}
+
+	/**
+	 * @param size The number of bytes of a block encoded from the text of the block being encoded.
+	 * @param limit The number of bytes the block has to be smaller than to be kept.
+	 * @return Whether the block is too big to keep, because it is no smaller than limit or than the text stored raw. 
+	 * The chars are only looked at if the block is no smaller than the text stored at one byte per char, so a block 
+	 * that compresses at all costs no extra pass over its chars.
+	 */
+	private boolean tooBig(int size, int limit) {
+		if (size >= limit) {
+			return true;
+		}
+
+		return storeIncompressible && size >= STORED_HEADER_LENGTH + blockText.length() 
+				&& size >= STORED_HEADER_LENGTH + blockText.length() * storedCharBytes();
+	}
+
+	/**
+	 * @return The number of bytes each char of the block being encoded is stored in: 1 if every char is below 256, 
+	 * or else 2. The chars are only looked at the first time this is called for a block.
+	 */
+	private int storedCharBytes() {
+		if (charBytes == 0) {
+			charBytes = 1;
+
+			for (int i = 0; i < blockText.length(); i++) {
+				if (blockText.charAt(i) >= 256) {
+					charBytes = 2;
+					break;
+				}
+			}
+		}
+
+		return charBytes;
+	}
+
+	/**
+	 * Stores one block of text raw. The block is made of the number of chars in the text, the checksum of the text, 
+	 * the number of chars again, STORED_BLOCK, the number of bytes each char is stored in, the number of bytes of 
+	 * data, and the chars themselves.
+	 * @param str The text of the block.
+	 * @param textChecksum The checksum of the text of the block.
+	 * @param stats The statistics of the block, which are filled in as it is stored.
+	 * @return The bytes of the stored block.
+	 * @throws IOException If the block could not be written.
+	 */
+	private byte[] encodeStored(String str, int textChecksum, CompressionStats stats) throws IOException {
+		long time = System.nanoTime();
+		int rawLength = str.length();
+		int charBytes = storedCharBytes();
+		int dataLength = rawLength * charBytes;
+
+		if (storedBytes == null || storedBytes.length < dataLength) {
+			storedBytes = new byte[Math.max(dataLength, 256)];
+		}
+
+		for (int i = 0; i < rawLength; i++) {
+			char c = str.charAt(i);
+
+			if (charBytes == 1) {
+				storedBytes[i] = (byte)c;
+			}
+			else {
+				storedBytes[2 * i] = (byte)(c >>> 8);
+				storedBytes[2 * i + 1] = (byte)c;
+			}
+		}
+
+		block.reset();
+		blockOut.writeInt(rawLength);
+		blockOut.writeInt(textChecksum);
+		blockOut.writeInt(rawLength);
+		blockOut.writeByte(HuffmanEncode.STORED_BLOCK);
+		blockOut.writeByte(charBytes);
+		blockOut.writeInt(dataLength);
+		blockOut.write(storedBytes, 0, dataLength);
+		stats.addPhase(CompressionStats.PHASE_BITS, time);
+
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += rawLength;
+		stats.encodedBits += dataLength * 8L;
+		stats.storedBlocks++;
+
+		return block.toByteArray();
+	}
+
+	/**
+	 * Encodes one block of text once its chars have been substituted and counted.
+	 * @param str The text of the block after substitution.
+	 * @param rawLength The number of chars in the text of the block before substitution.
+	 * @param textChecksum The checksum of the text of the block before substitution.
+	 * @param symbolCount The number of chars that occur in the block, which are listed in symbols.
+	 * @param limit The number of bytes the block has to be smaller than to be kept.
+	 * @param settings The settings the block is compressed with.
+	 * @param stats The statistics of the block, which are filled in as it is encoded.
+	 * @param time The value of System.nanoTime when the Huffman codes started to be built.
+	 * @return The bytes of the encoded block, or null if it is too big to keep by tooBig.
+	 * @throws IOException If the block could not be written.
+	 */
+	private byte[] encodeSymbols(String str, int rawLength, int textChecksum, int symbolCount, int limit, 
+			EncodeSettings settings, CompressionStats stats, long time) throws IOException {
+
+		//Every code of an interleaved block has to fit in the decoding table, so that one lookup decodes any char.
+		int maxCodeLength = settings.maxCodeLength;
+
+		if (settings.interleaved && (maxCodeLength == 0 || maxCodeLength > DecodeTable.MAX_TABLE_BITS)) {
+			maxCodeLength = DecodeTable.MAX_TABLE_BITS;
+		}
+
+		CanonicalCode canonicalCode = buildCode(freqs, symbols, symbolCount, maxCodeLength, codes, lengths);
+		int maxLength = maxLength(canonicalCode);
+		time = stats.addPhase(CompressionStats.PHASE_TREE, time);
+
+		//A block with too many chars for their codes to fit in the decoding table is written as one stream instead.
+		boolean interleaved = settings.interleaved && maxLength <= DecodeTable.MAX_TABLE_BITS;
+
+		//The encoded bits are kept in memory until the block is done, so that their length can be written first.
+		encoded.reset();
+
+		if (interleaved) {
+			writeInterleavedBits(str);
+		}
+		else {
+			HuffmanEncode.writeBits(str, codes, lengths, bits);
+		}
+
+		time = stats.addPhase(CompressionStats.PHASE_BITS, time);
+
+		block.reset();
+		blockOut.writeInt(rawLength);
+		blockOut.writeInt(textChecksum);
+		blockOut.writeInt(str.length());
+		blockOut.writeByte(interleaved ? maxLength | HuffmanEncode.INTERLEAVED_BLOCK : maxLength);
+		canonicalCode.write(blockOut);
+
+		//The length of the last stream and the start of the first segment are left out, since the decoder knows them.
+		if (interleaved) {
+			for (int i = 0; i < HuffmanEncode.STREAMS - 1; i++) {
+				blockOut.writeInt(streamLengths[i]);
+			}
+
+			for (int i = 1; i < HuffmanEncode.STREAMS; i++) {
+				blockOut.writeInt(segmentStarts[i]);
+			}
+		}
+
+		blockOut.writeInt(encoded.size());
+		encoded.writeTo(blockOut);
+
+		//A block that is stored raw counts as stored instead, so nothing is counted until the block is kept.
+		if (tooBig(block.size(), limit)) {
+			return null;
+		}
+
+		stats.addEntropy(freqs, symbols, symbolCount, str.length());
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += str.length();
+		stats.encodedBits += encoded.size() * 8L;
+		stats.codeCount += canonicalCode.lengths.length;
+
+		for (int length : canonicalCode.lengths) {
+			stats.codeLengthSum += length;
+		}
+
+		return block.toByteArray();
+	}
+
+	/**
+	 * Builds the canonical code of the symbols that occur in a block, and stores the code and code length of each 
+	 * symbol in arrays indexed by the symbol.
+	 * @param freqs The frequency of each symbol, indexed by the symbol.
+	 * @param symbols The symbols that occur, from least to greatest.
+	 * @param count The number of symbols that occur.
+	 * @param maxCodeLength The longest a code is allowed to be, or 0 for no limit.
+	 * @param codes The array used to store the code of each symbol.
+	 * @param lengths The array used to store the code length of each symbol.
+	 * @return The canonical code of the symbols, which has no codes if no symbol occurs.
+	 */
+	private static CanonicalCode buildCode(int[] freqs, char[] symbols, int count, int maxCodeLength, int[] codes, 
+			int[] lengths) {
+		if (count == 0) {
+			return new CanonicalCode(new char[0], new int[0]);
+		}
+
+		Node huffmanNode = HuffmanEncode.makeTree(freqs, symbols, count);
+
+		/*
+		 * Store the binary value of each char from the Huffman tree, and its number of bits, by traversing through all 
+		 * possible paths within the tree.
+		 */
+		HuffmanEncode.charsToBinary(huffmanNode, 0, 0, codes, lengths);
+
+		int maxLength = 0;
+
+		for (int i = 0; i < count; i++) {
+			maxLength = Math.max(maxLength, lengths[symbols[i]]);
+		}
+
+		/*
+		 * If a code is longer than the limit, find new code lengths that keep within it. The limit has to be at least 
+		 * enough bits to give every char its own code.
+		 */
+		if (maxCodeLength > 0 && maxLength > maxCodeLength) {
+			maxLength = Math.max(maxCodeLength, 32 - Integer.numberOfLeadingZeros(count - 1));
+
+			for (int i = 0; i < count; i++) {
+				lengths[symbols[i]] = 0;
+			}
+
+			HuffmanEncode.packageMerge(freqs, maxLength, lengths);
+		}
+
+		/*
+		 * Replace the codes of the tree with canonical codes of the same lengths, so that only the code length of 
+		 * each char has to be stored in the header instead of the whole tree.
+		 */
+		CanonicalCode canonicalCode = CanonicalCode.fromLengths(lengths, symbols, count);
+		canonicalCode.fillTables(codes, lengths);
+
+		return canonicalCode;
+	}
+
+	/**
+	 * @param code A canonical code.
+	 * @return The longest code length of the code, or 0 if it has no codes.
+	 */
+	private static int maxLength(CanonicalCode code) {
+
+		//The codes are sorted by code length, so the longest one is last.
+		return code.lengths.length == 0 ? 0 : code.lengths[code.lengths.length - 1];
+	}
+
+	/**
+	 * Parses a block into literals and matches with the match finder.
+	 * @param str The text of the block.
+	 * @param level The level the block is compressed at, which sets how hard the match finder looks for matches.
+	 * @return False if every char occurs in the text, in which case the block cannot be compressed with LZ77.
+	 */
+	private boolean parseMatches(String str, int level) {
+		if (matches == null) {
+			matches = new MatchFinder();
+		}
+
+		if (matchChars == null || matchChars.length < str.length()) {
+			matchChars = new char[Math.max(str.length(), 256)];
+		}
+
+		str.getChars(0, str.length(), matchChars, 0);
+
+		return matches.parse(matchChars, str.length(), level);
+	}
+
+	/**
+	 * Encodes one block of text once it has been parsed into literals and matches. The literals (with the escape char 
+	 * in place of each match) are given one code, and the length slots and the distance slots of the matches are 
+	 * given a code each. The block is made of the number of chars in the text, the checksum of the text, the number of
+	 * literals, LZ77_BLOCK, the escape char, the longest code length and the code table of each of the three codes, 
+	 * the number of bytes of encoded bits, and the encoded bits themselves. Each escape char in the bits is followed 
+	 * by the slot and the extra bits of the length of its match, and then those of the distance.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param textChecksum The checksum of the text of the block.
+	 * @param limit The number of bytes the block has to be smaller than to be kept.
+	 * @param settings The settings the block is compressed with.
+	 * @param stats The statistics of the block, which are filled in as it is encoded.
+	 * @param time The value of System.nanoTime when the Huffman codes started to be built.
+	 * @return The bytes of the encoded block, or null if it is too big to keep by tooBig.
+	 * @throws IOException If the block could not be written.
+	 */
+	private byte[] encodeMatches(int rawLength, int textChecksum, int limit, EncodeSettings settings, 
+			CompressionStats stats, long time) throws IOException {
+		char[] literals = matches.literals;
+		int literalCount = matches.literalCount;
+		int symbolCount = 0;
+
+		for (int i = 0; i < literalCount; i++) {
+			if (freqs[literals[i]]++ == 0) {
+				symbols[symbolCount++] = literals[i];
+			}
+		}
+
+		Arrays.sort(symbols, 0, symbolCount);
+
+		long matchedChars = 0;
+
+		for (int i = 0; i < matches.matchCount; i++) {
+			lengthFreqs[MatchFinder.slot(matches.lengths[i] - MatchFinder.MIN_MATCH)]++;
+			distanceFreqs[MatchFinder.slot(matches.distances[i] - 1)]++;
+			matchedChars += matches.lengths[i];
+		}
+
+		try {
+			CanonicalCode literalCode = buildCode(freqs, symbols, symbolCount, settings.maxCodeLength, codes, lengths);
+			CanonicalCode lengthCode = buildCode(lengthFreqs, lengthSymbols, listSlots(lengthFreqs, lengthSymbols), 0, 
+					lengthCodes, lengthLengths);
+			CanonicalCode distanceCode = buildCode(distanceFreqs, distanceSymbols, 
+					listSlots(distanceFreqs, distanceSymbols), 0, distanceCodes, distanceLengths);
+			time = stats.addPhase(CompressionStats.PHASE_TREE, time);
+
+			encoded.reset();
+			writeMatchBits();
+			time = stats.addPhase(CompressionStats.PHASE_BITS, time);
+
+			block.reset();
+			blockOut.writeInt(rawLength);
+			blockOut.writeInt(textChecksum);
+			blockOut.writeInt(literalCount);
+			blockOut.writeByte(HuffmanEncode.LZ77_BLOCK);
+			blockOut.writeChar(matches.escape);
+
+			CanonicalCode[] blockCodes = {literalCode, lengthCode, distanceCode};
+
+			for (CanonicalCode code : blockCodes) {
+				blockOut.writeByte(maxLength(code));
+				code.write(blockOut);
+			}
+
+			blockOut.writeInt(encoded.size());
+			encoded.writeTo(blockOut);
+
+			if (tooBig(block.size(), limit)) {
+				return null;
+			}
+
+			stats.addEntropy(freqs, symbols, symbolCount, literalCount);
+			stats.blocks++;
+			stats.rawChars += rawLength;
+			stats.symbols += literalCount;
+			stats.encodedBits += encoded.size() * 8L;
+			stats.matches += matches.matchCount;
+			stats.matchedChars += matchedChars;
+
+			for (CanonicalCode code : blockCodes) {
+				stats.codeCount += code.lengths.length;
+
+				for (int length : code.lengths) {
+					stats.codeLengthSum += length;
+				}
+			}
+
+			return block.toByteArray();
+		}
+		finally {
+
+			//Clear the entries of the symbols that occurred, so the arrays are all zeroes again for the next block.
+			for (int i = 0; i < symbolCount; i++) {
+				freqs[symbols[i]] = 0;
+				lengths[symbols[i]] = 0;
+			}
+
+			Arrays.fill(lengthFreqs, 0);
+			Arrays.fill(lengthLengths, 0);
+			Arrays.fill(distanceFreqs, 0);
+			Arrays.fill(distanceLengths, 0);
+		}
+	}
+
+	/**
+	 * Lists the slots that occur.
+	 * @param slotFreqs The frequency of each slot, indexed by the slot.
+	 * @param slots The array used to list the slots that occur, from least to greatest.
+	 * @return The number of slots that occur.
+	 */
+	private static int listSlots(int[] slotFreqs, char[] slots) {
+		int count = 0;
+
+		for (int i = 0; i < slotFreqs.length; i++) {
+			if (slotFreqs[i] > 0) {
+				slots[count++] = (char)i;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Writes the bits of a block that was parsed into literals and matches, once the codes have been built.
+	 * @throws IOException If the bits could not be written.
+	 */
+	private void writeMatchBits() throws IOException {
+		char[] literals = matches.literals;
+		char escape = matches.escape;
+		int match = 0;
+
+		for (int i = 0; i < matches.literalCount; i++) {
+			char c = literals[i];
+			bits.write(codes[c], lengths[c]);
+
+			if (c == escape) {
+				int length = matches.lengths[match] - MatchFinder.MIN_MATCH;
+				int slot = MatchFinder.slot(length);
+				bits.write(lengthCodes[slot], lengthLengths[slot]);
+				bits.write(length - MatchFinder.slotBase(slot), MatchFinder.extraBits(slot));
+
+				int distance = matches.distances[match] - 1;
+				slot = MatchFinder.slot(distance);
+				bits.write(distanceCodes[slot], distanceLengths[slot]);
+				bits.write(distance - MatchFinder.slotBase(slot), MatchFinder.extraBits(slot));
+
+				match++;
+			}
+		}
+
+		bits.finish();
+	}
+
+	/**
+	 * Writes the bits of a block as STREAMS streams, one after the other. The chars after the information for decoding
+	 * are split into segments by HuffmanEncode.segmentStart, and each segment is written to its own stream, with the
+	 * information for decoding at the start of the first one. Each stream ends on a whole byte, so the decoder can
+	 * start reading any of them from where the one before it ends.
+	 * @param str The text of the block after substitution.
+	 * @throws IOException If the bits could not be written.
+	 */
+	private void writeInterleavedBits(String str) throws IOException {
+		str.getChars(0, Math.min(str.length(), strDecode.length), strDecode, 0);
+
+		int decodeLength = Optimization.decodeInfoLength(strDecode);
+		char[][] expansions = Optimization.expansions(strDecode);
+		int count = str.length() - decodeLength;
+		int rawPosition = 0;
+
+		for (int segment = 0; segment < HuffmanEncode.STREAMS; segment++) {
+			int from = decodeLength + HuffmanEncode.segmentStart(count, segment);
+			int to = decodeLength + HuffmanEncode.segmentStart(count, segment + 1);
+			int streamStart = encoded.size();
+
+			//Find where the segment starts in the text, so the decoder can expand every segment straight into place.
+			segmentStarts[segment] = rawPosition;
+
+			for (int i = from; i < to; i++) {
+				char c = str.charAt(i);
+				rawPosition += c < 256 && expansions[c] != null ? expansions[c].length : 1;
+			}
+
+			HuffmanEncode.writeBits(str, segment == 0 ? 0 : from, to, codes, lengths, bits);
+			streamLengths[segment] = encoded.size() - streamStart;
+		}
+	}
+
+	/**
+	 * Encodes one block of text with the dictionary and code of a model. The block is made of the number of chars in
+	 * the text, the checksum of the text, the number of chars left after substitution, MODEL_BLOCK, the ID of the
+	 * model, the number of bytes of encoded bits, and the encoded bits themselves.
+	 * @param str The text of the block, which the model must be able to encode.
+	 * @param textChecksum The checksum of the text of the block.
+	 * @param limit The number of bytes the block has to be smaller than to be kept.
+	 * @param model The model the block is encoded with.
+	 * @param stats The statistics of the block, which are filled in as it is encoded.
+	 * @param time The value of System.nanoTime when the block started to be encoded.
+	 * @return The bytes of the encoded block, or null if it is too big to keep by tooBig.
+	 * @throws IOException If the block could not be written.
+	 */
+	private byte[] encodeWithModel(String str, int textChecksum, int limit, HuffmanModel model, 
+			CompressionStats stats, long time) throws IOException {
+		int rawLength = str.length();
+
+		if (modelChars == null || modelChars.length < rawLength) {
+			modelChars = new char[Math.max(rawLength, 256)];
+		}
+
+		str.getChars(0, rawLength, modelChars, 0);
+		int length = rawLength;
+
+		//Replace the substrings of the dictionary in the same order Optimization would have replaced them.
+		for (int i = 0; i < model.tries.length; i++) {
+			SubstitutionTrie trie = model.tries[i];
+
+			length = trie.replaceAll(modelChars, length, replaced);
+			blockSubstitutions[Optimization.MAX_SUBSTR_LEN - i] = 0;
+
+			for (int j = 0; j < trie.size(); j++) {
+				blockSubstitutions[Optimization.MAX_SUBSTR_LEN - i] += replaced[j];
+				replaced[j] = 0;
+			}
+		}
+
+		str = new String(modelChars, 0, length);
+		time = stats.addPhase(CompressionStats.PHASE_SUBSTITUTION, time);
+
+		encoded.reset();
+		HuffmanEncode.writeBits(str, model.codes, model.lengths, bits);
+		time = stats.addPhase(CompressionStats.PHASE_BITS, time);
+
+		block.reset();
+		blockOut.writeInt(rawLength);
+		blockOut.writeInt(textChecksum);
+		blockOut.writeInt(length);
+		blockOut.writeByte(HuffmanEncode.MODEL_BLOCK);
+		blockOut.writeInt(model.id);
+		blockOut.writeInt(encoded.size());
+		encoded.writeTo(blockOut);
+
+		//The substitutions only count once the block is kept, since a block that is stored raw substitutes nothing.
+		if (tooBig(block.size(), limit)) {
+			return null;
+		}
+
+		addSubstitutions(stats);
+
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += length;
+		stats.encodedBits += encoded.size() * 8L;
+
+		return block.toByteArray();
+	}
+
+	/**
+	 * Adds the substitutions of the block that was just encoded to the statistics of the block.
+	 * @param stats The statistics of the block.
+	 */
+	private void addSubstitutions(CompressionStats stats) {
+		for (int i = Optimization.MIN_SUBSTR_LEN; i <= Optimization.MAX_SUBSTR_LEN; i++) {
+			stats.substitutions[i] += blockSubstitutions[i];
+		}
+	}
+
+	/**
+	 * @return The settings this compressor compresses with.
+	 */
+	EncodeSettings settings() {
+		return settings;
+	}
+
+	/**
+	 * @return The array that raw bytes are read into before they are compressed, which is BLOCK_SIZE bytes long.
+	 */
+	byte[] byteBlock() {
+		if (byteBlock == null) {
+			byteBlock = new byte[HuffmanEncode.BLOCK_SIZE];
+		}
+
+		return byteBlock;
+	}
+
+	/**
+	 * Compresses a text in chars mode. A text of at most BLOCK_SIZE chars is written as one frame, with nothing in
+	 * front of its block but one byte, or as the text itself if no block would make it smaller.
+	 * @param text The text to be compressed.
+	 * @return The compressed text. A text longer than BLOCK_SIZE is compressed to a whole file, which can also be
+	 * decompressed by HuffmanDecode.
+	 * @throws IOException If the text could not be compressed.
+	 */
+	public byte[] compress(String text) throws IOException {
+		CompressionStats textStats = new CompressionStats();
+		long start = System.nanoTime();
+		byte[] compressed;
+
+		if (text.length() <= HuffmanEncode.BLOCK_SIZE) {
+			int utf8Length = utf8Length(text);
+			byte[] encodedBlock = encodeFramed(text, utf8Length, textStats);
+
+			if (encodedBlock != null) {
+				compressed = frame(HuffmanEncode.FRAMED_BLOCK + HuffmanEncode.MODE_CHARS, encodedBlock, 0, 
+						encodedBlock.length);
+			}
+			else {
+				byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+				compressed = frame(HuffmanEncode.FRAMED_RAW + HuffmanEncode.MODE_CHARS, utf8, 0, utf8.length);
+			}
+		}
+		else {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(text.length() / 2 + 64);
+			BlockWriter writer = new BlockWriter(output, HuffmanEncode.MODE_CHARS);
+
+			for (int i = 0; i < text.length(); i += HuffmanEncode.BLOCK_SIZE) {
+				String str = text.substring(i, Math.min(text.length(), i + HuffmanEncode.BLOCK_SIZE));
+				writer.writeBlock(encodeBlock(str, settings, textStats), str.length());
+			}
+
+			writer.finish();
+			compressed = output.toByteArray();
+		}
+
+		//The text is never encoded as bytes, so its chars are counted as the bytes in.
+		textStats.bytesIn = text.length();
+		textStats.bytesOut = compressed.length;
+		textStats.totalNanos = System.nanoTime() - start;
+		stats.add(textStats);
+
+		return compressed;
+	}
+
+	/**
+	 * Compresses raw bytes in bytes mode.
+	 * @param data The bytes to be compressed.
+	 * @return The compressed bytes, which are framed the same way as by compress(String).
+	 * @throws IOException If the bytes could not be compressed.
+	 */
+	public byte[] compress(byte[] data) throws IOException {
+		return compress(data, 0, data.length);
+	}
+
+	/**
+	 * Compresses part of an array of raw bytes in bytes mode.
+	 * @param data The array holding the bytes to be compressed.
+	 * @param offset The position of the first byte to be compressed.
+	 * @param length The number of bytes to be compressed.
+	 * @return The compressed bytes, which are framed the same way as by compress(String).
+	 * @throws IOException If the bytes could not be compressed.
+	 */
+	public byte[] compress(byte[] data, int offset, int length) throws IOException {
+		CompressionStats dataStats = new CompressionStats();
+		long start = System.nanoTime();
+		byte[] compressed;
+
+		if (length <= HuffmanEncode.BLOCK_SIZE) {
+
+			//ISO-8859-1 maps every byte to the char with the same value, so this is a plain copy with no decoding.
+			String str = new String(data, offset, length, StandardCharsets.ISO_8859_1);
+			byte[] encodedBlock = encodeFramed(str, length, dataStats);
+
+			compressed = encodedBlock != null 
+					? frame(HuffmanEncode.FRAMED_BLOCK + HuffmanEncode.MODE_BYTES, encodedBlock, 0, encodedBlock.length)
+					: frame(HuffmanEncode.FRAMED_RAW + HuffmanEncode.MODE_BYTES, data, offset, length);
+		}
+		else {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(length / 2 + 64);
+			BlockWriter writer = new BlockWriter(output, HuffmanEncode.MODE_BYTES);
+
+			for (int i = 0; i < length; i += HuffmanEncode.BLOCK_SIZE) {
+				int blockLength = Math.min(length - i, HuffmanEncode.BLOCK_SIZE);
+				String str = new String(data, offset + i, blockLength, StandardCharsets.ISO_8859_1);
+				writer.writeBlock(encodeBlock(str, settings, dataStats), blockLength);
+			}
+
+			writer.finish();
+			compressed = output.toByteArray();
+		}
+
+		dataStats.bytesIn = length;
+		dataStats.bytesOut = compressed.length;
+		dataStats.totalNanos = System.nanoTime() - start;
+		stats.add(dataStats);
+
+		return compressed;
+	}
+
+	/**
+	 * Encodes a payload of at most one block for a frame, unless it would be no smaller than the payload itself.
+	 * @param str The payload, with each byte as a char in bytes mode.
+	 * @param rawLength The number of bytes of the payload as it is, or -1 if it cannot be written as it is.
+	 * @param payloadStats The statistics of the payload.
+	 * @return The encoded block, or null if the payload should be written as it is.
+	 * @throws IOException If the payload could not be encoded.
+	 */
+	private byte[] encodeFramed(String str, int rawLength, CompressionStats payloadStats) throws IOException {
+		if (str.isEmpty()) {
+			return null;
+		}
+
+		byte[] encodedBlock = encodeBlock(str, settings, payloadStats);
+
+		return rawLength < 0 || encodedBlock.length < rawLength ? encodedBlock : null;
+	}
+
+	/**
+	 * @param first The first byte of the frame.
+	 * @param data The array holding what follows the first byte.
+	 * @param offset The position of the first byte to follow it.
+	 * @param length The number of bytes to follow it.
+	 * @return The frame.
+	 */
+	private static byte[] frame(int first, byte[] data, int offset, int length) {
+		byte[] frame = new byte[length + 1];
+		frame[0] = (byte)first;
+		System.arraycopy(data, offset, frame, 1, length);
+
+		return frame;
+	}
+
+	/**
+	 * @param text A text.
+	 * @return The number of bytes the text takes as UTF-8, or -1 if it holds a surrogate with no pair, which UTF-8 
+	 * cannot hold.
+	 */
+	private static int utf8Length(String text) {
+		int length = 0;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c < 0x80) {
+				length++;
+			}
+			else if (c < 0x800) {
+				length += 2;
+			}
+			else if (!Character.isSurrogate(c)) {
+				length += 3;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < text.length() 
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				length += 4;
+				i++;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 * Compresses a stream in the mode of the settings, one block at a time on the calling thread. Unlike 
+	 * HuffmanEncode.encode, no pool is used, so many streams can be compressed at the same time by giving each 
+	 * thread its own compressor.
+	 * @param input The stream to be compressed.
+	 * @param output The stream the compressed file is written to, which is not closed.
+	 * @return The statistics of compressing the stream.
+	 * @throws IOException If the stream could not be read or the compressed file could not be written.
+	 */
+	public CompressionStats compress(InputStream input, OutputStream output) throws IOException {
+		int mode = settings.mode;
+		CompressionStats streamStats = new CompressionStats();
+		long start = System.nanoTime();
+
+		//Count the bytes on both sides for the statistics.
+		CountingInputStream countedInput = new CountingInputStream(input);
+		CountingOutputStream countedOutput = new CountingOutputStream(output);
+
+		Reader reader = mode == HuffmanEncode.MODE_CHARS 
+				? new InputStreamReader(countedInput, StandardCharsets.UTF_8) : null;
+
+		if (mode == HuffmanEncode.MODE_CHARS && charBlock == null) {
+			charBlock = new char[HuffmanEncode.BLOCK_SIZE];
+		}
+
+		BlockWriter writer = new BlockWriter(new BufferedOutputStream(countedOutput, BitWriter.BUFFER_SIZE), mode);
+
+		while (true) {
+			long time = System.nanoTime();
+			String str = mode == HuffmanEncode.MODE_BYTES 
+					? HuffmanEncode.readBlock(countedInput, byteBlock()) : HuffmanEncode.readBlock(reader, charBlock);
+			streamStats.addPhase(CompressionStats.PHASE_READ, time);
+
+			if (str == null) {
+				break;
+			}
+
+			byte[] encodedBlock = encodeBlock(str, settings, streamStats);
+
+			time = System.nanoTime();
+			writer.writeBlock(encodedBlock, str.length());
+			streamStats.addPhase(CompressionStats.PHASE_WRITE, time);
+		}
+
+		long time = System.nanoTime();
+		writer.finish();
+		streamStats.addPhase(CompressionStats.PHASE_WRITE, time);
+
+		streamStats.bytesIn = countedInput.count;
+		streamStats.bytesOut = countedOutput.count;
+		streamStats.totalNanos = System.nanoTime() - start;
+		stats.add(streamStats);
+
+		return streamStats;
+	}
+}
@@ -0,0 +1,207 @@
+package huffman;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Dev Patel
+ * date: 01/21/2021
+ * description: This class is used to decode and decompress the huffman.ser file to an output file that matches the 
+ * original encoded file. Files compressed as raw bytes are written back as the same raw bytes.
+ */
+public class HuffmanDecode {
+	
+	//The largest part of a compressed file that is memory-mapped at once.
+	public static final long MAP_WINDOW = 1L << 30;
+
+	/**
+	 * Decodes and decompresses a compressed file from a stream, one block at a time, and writes the text as UTF-8 (or 
+	 * the raw bytes, for a file compressed in bytes mode). Only one block is held in memory no matter how long the 
+	 * text is.
+	 * @param input The stream the compressed file is read from.
+	 * @param output The stream the text is written to.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public static CompressionStats decode(InputStream input, OutputStream output) throws IOException {
+		return new HuffmanDecompressor().decompress(input, output);
+	}
+	
+	/**
+	 * Decodes and decompresses a compressed file, one block at a time, and writes the text as UTF-8 (or the raw bytes, 
+	 * for a file compressed in bytes mode) to another file.
+	 * @param file The compressed file.
+	 * @param output The file the text is written to, which is replaced if it exists.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public static CompressionStats decode(File file, File output) throws IOException {
+		FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+				StandardOpenOption.TRUNCATE_EXISTING);
+		
+		try {
+			return decode(file, channel);
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Decodes and decompresses a compressed file, one block at a time, and writes the text as UTF-8 (or the raw bytes, 
+	 * for a file compressed in bytes mode) to a stream.
+	 * @param file The compressed file.
+	 * @param output The stream the text is written to, which is not closed.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public static CompressionStats decode(File file, OutputStream output) throws IOException {
+		return decode(file, ChannelTextWriter.channelOf(output));
+	}
+	
+	/**
+	 * Decodes and decompresses a compressed file, one block at a time, and writes the text as UTF-8 (or the raw bytes, 
+	 * for a file compressed in bytes mode) to a channel. The file is read through memory-mapped windows of up to 
+	 * MAP_WINDOW bytes, so the bits are decoded straight from the file without copying it onto the heap, and the text
+	 * of each block is written through a pooled direct buffer, so it is never copied onto the heap on its way out.
+	 * @param file The compressed file.
+	 * @param output The channel the text is written to, which is not closed.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public static CompressionStats decode(File file, WritableByteChannel output) throws IOException {
+		CompressionStats stats = new CompressionStats();
+		long start = System.nanoTime();
+		HuffmanDecompressor decompressor = new HuffmanDecompressor();
+		
+		RandomAccessFile compressed = new RandomAccessFile(file, "r");
+		ChannelTextWriter out = null;
+		
+		try {
+			FileChannel channel = compressed.getChannel();
+			BlockIndex index = BlockIndex.read(compressed);
+			out = new ChannelTextWriter(output, index.mode);
+			decompressor.startFile();
+			
+			MappedByteBuffer window = null;
+			long windowStart = 0;
+			
+			for (int block = 0; block < index.size(); block++) {
+				long blockStart = index.offsets.get(block);
+				
+				long time = System.nanoTime();
+				
+				//Map a new window, starting at the block, whenever the block does not fit in the current one.
+				if (window == null || index.blockEnd(block) > windowStart + window.capacity()) {
+					windowStart = blockStart;
+					window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, 
+							Math.min(MAP_WINDOW, index.blocksEnd - windowStart));
+				}
+				
+				window.position((int)(blockStart - windowStart));
+				stats.addPhase(CompressionStats.PHASE_READ, time);
+				
+				int rawLength = decompressor.decodeBlock(window, window.getInt(), stats);
+				
+				time = System.nanoTime();
+				out.write(decompressor.chars(), rawLength);
+				stats.addPhase(CompressionStats.PHASE_WRITE, time);
+			}
+			
+			//Every block has been checked, so only a missing or reordered block is left to find.
+			decompressor.checkFile(index.streamChecksum);
+			
+			long time = System.nanoTime();
+			out.finish();
+			stats.addPhase(CompressionStats.PHASE_WRITE, time);
+			
+			stats.bytesIn = compressed.length();
+			stats.bytesOut = out.count;
+		}
+		finally {
+			if (out != null) {
+				out.close();
+			}
+			
+			compressed.close();
+		}
+		
+		stats.totalNanos = System.nanoTime() - start;
+		
+		return stats;
+	}
+	
+	/**
+	 * Decodes and decompresses only part of the text in a compressed file. The index at the end of the file is used to
+	 * find the blocks that hold the part, and only those blocks are mapped, so the rest of the file is never read.
+	 * @param file The compressed file.
+	 * @param start The offset of the first char of the part in the text (or byte, for a file compressed in bytes mode).
+	 * @param length The number of chars in the part.
+	 * @return The part of the text, which is shorter than length if the text ends first. For a file compressed in 
+	 * bytes mode, each char of the part is one byte.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	public static String decodeRange(File file, long start, long length) throws IOException {
+		RandomAccessFile compressed = new RandomAccessFile(file, "r");
+		StringBuilder strBuild = new StringBuilder();
+		HuffmanDecompressor decompressor = new HuffmanDecompressor();
+		
+		try {
+			FileChannel channel = compressed.getChannel();
+			BlockIndex index = BlockIndex.read(compressed);
+			long end = Math.min(start + length, index.rawTotal);
+			
+			//Decode every block from the one holding the first char of the part until the part is complete.
+			for (int block = index.findBlock(start); start < end; block++) {
+				long blockStart = index.offsets.get(block);
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, blockStart, 
+						index.blockEnd(block) - blockStart);
+				int rawLength = decompressor.decodeBlock(mapped, mapped.getInt(), decompressor.stats);
+				
+				//Only keep the chars of the block that are in the part.
+				int from = (int)(start - index.rawOffsets.get(block));
+				int to = (int)Math.min(rawLength, end - index.rawOffsets.get(block));
+				
+				strBuild.append(decompressor.chars(), from, to - from);
+				start += to - from;
+			}
+		}
+		finally {
+			compressed.close();
+		}
+		
+		return strBuild.toString();
+	}
+	
+	/**
+	 * Decodes and decompresses only part of a file compressed in bytes mode.
+	 * @param file The compressed file.
+	 * @param start The offset of the first byte of the part.
+	 * @param length The number of bytes in the part.
+	 * @return The bytes of the part, which is shorter than length if the file ends first.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	public static byte[] decodeByteRange(File file, long start, long length) throws IOException {
+		return decodeRange(file, start, length).getBytes(StandardCharsets.ISO_8859_1);
+	}
+	
+	public static void main(String[] args) {
+		try {
+			System.out.println("Decompressing huffman.ser...");
+			
+			CompressionStats stats = decode(new File("huffman.ser"), new File("output.txt"));
+			
+			System.out.println("Done! Check output.txt");
+			System.out.println(stats.toJson());
+		}
+		catch (Exception exc) {
+			System.err.println("Could not decompress huffman.ser: " + exc.getMessage());
+			exc.printStackTrace();
+			System.exit(1);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,929 @@
+package huffman;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to decompress any number of compressed files or payloads in the same process. The 
+ * decoding table and the arrays that the bits are read into and the text is decoded into are made once and reused by
+ * every block, so a decompressor that is kept around decompresses at the speed of warmed-up code without allocating 
+ * them again. The checksum of every block is checked as soon as it is decoded, and the checksum of the whole file once
+ * its end is read, so a damaged file is found without reading anything twice. A decompressor must only be used by one
+ * thread at a time.
+ */
+public class HuffmanDecompressor {
+
+	//The statistics of everything this decompressor has decompressed, which can be registered with JMX.
+	public CompressionStats stats = new CompressionStats();
+
+	private DecodeTable table = new DecodeTable();
+	private char[] strDecode = new char[Optimization.MAX_DECODE_INFO_LENGTH];
+
+	//The text of the last block that was decoded, and the same text as bytes for blocks compressed in bytes mode.
+	private char[] chars = new char[0];
+	private byte[] bytes = new byte[0];
+
+	//The encoded bits of a block read from a stream.
+	private byte[] data = new byte[0];
+
+	//The number of bytes in each stream of an interleaved block, and where each of its segments starts in the text.
+	private int[] streamLengths = new int[HuffmanEncode.STREAMS];
+	private int[] segmentStarts = new int[HuffmanEncode.STREAMS];
+
+	/*
+	 * The escape char of an LZ77 block, the longest code length of its literals, and the longest code lengths, codes 
+	 * and decoding tables of the length slots and distance slots of its matches. The literals are decoded with the 
+	 * same table as other blocks.
+	 */
+	private char escape;
+	private int literalMaxLength;
+	private int lengthMaxLength;
+	private int distanceMaxLength;
+	private CanonicalCode lengthCode;
+	private CanonicalCode distanceCode;
+	private DecodeTable lengthTable = new DecodeTable();
+	private DecodeTable distanceTable = new DecodeTable();
+
+	//The number of bytes each char of a stored block is stored in.
+	private int storedCharBytes;
+
+	//Used to take the checksum of the text of each block, and the checksum of the block checksums read so far.
+	private BlockChecksum checksum = new BlockChecksum();
+	private CRC32C streamChecksum = new CRC32C();
+
+	/**
+	 * Decodes the chars of a block and replaces its substitution chars with the substrings they represent as they are 
+	 * decoded, so the text is written to its array in a single pass.
+	 * @param code The canonical code of the block.
+	 * @param maxLength The longest code length of the block.
+	 * @param data The encoded bits of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of chars to decode.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 */
+	int decodeSymbols(CanonicalCode code, int maxLength, ByteBuffer data, int symbolCount, int rawLength, 
+			CompressionStats stats) {
+		long time = System.nanoTime();
+
+		//Build a lookup table from the canonical codes of the block.
+		table.build(code, maxLength);
+		BitReader bits = new BitReader(data);
+
+		int decodeLength = decodeInfo(bits);
+		char[][] expansions = Optimization.expansions(strDecode);
+
+		if (chars.length < rawLength) {
+			chars = new char[rawLength];
+		}
+
+		int written = 0;
+		time = stats.addPhase(CompressionStats.PHASE_TABLE, time);
+
+		//Decode one char per lookup, and write it or the substring it replaces straight to the text.
+		for (int i = decodeLength; i < symbolCount; i++) {
+			written = Optimization.expand(table.decode(bits), expansions, chars, written);
+		}
+
+		stats.addPhase(CompressionStats.PHASE_DECODE, time);
+		countBlock(code, data, symbolCount, rawLength, stats);
+
+		return rawLength;
+	}
+
+	/**
+	 * Decodes the chars of an interleaved block. The information for decoding is decoded from the start of the first 
+	 * stream, and then one char is decoded from each stream on every pass of the same loop. The lookups of the streams 
+	 * do not depend on each other, so the processor can work on all of them at once instead of waiting for each lookup 
+	 * to finish before it knows where the next code starts. The bits of each stream are kept in local variables and 
+	 * read eight bytes at a time, and each segment is expanded straight into its own place in the text.
+	 * @param code The canonical code of the block.
+	 * @param maxLength The longest code length of the block, without INTERLEAVED_BLOCK.
+	 * @param data The encoded bits of every stream of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of chars to decode.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If the lengths of the streams do not fit in the encoded bits, or the codes are too long.
+	 */
+	int decodeInterleavedSymbols(CanonicalCode code, int maxLength, ByteBuffer data, int symbolCount, int rawLength, 
+			CompressionStats stats) throws IOException {
+		long time = System.nanoTime();
+
+		//The encoder keeps every code of an interleaved block within the table, so one lookup always decodes a char.
+		if (maxLength > DecodeTable.MAX_TABLE_BITS) {
+			throw new IOException("Codes of an interleaved block are too long, the file is damaged");
+		}
+
+		//The last stream is made of the bytes left after the others.
+		int lastLength = data.limit() - data.position();
+
+		for (int i = 0; i < HuffmanEncode.STREAMS - 1; i++) {
+			if (streamLengths[i] < 0 || streamLengths[i] > lastLength) {
+				throw new IOException("Streams of a block do not fit in the block, the file is damaged");
+			}
+
+			lastLength -= streamLengths[i];
+		}
+
+		ByteBuffer bytes = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int limit = bytes.limit();
+		int start0 = bytes.position();
+		int start1 = start0 + streamLengths[0];
+		int start2 = start1 + streamLengths[1];
+		int start3 = start2 + streamLengths[2];
+
+		table.build(code, maxLength);
+		BitReader info = new BitReader(bytes.duplicate().limit(start1));
+		int decodeLength = decodeInfo(info);
+		char[][] expansions = Optimization.expansions(strDecode);
+
+		if (chars.length < rawLength) {
+			chars = new char[rawLength];
+		}
+
+		char[] text = chars;
+		int[] entries = table.entries();
+		int tableBits = table.tableBits();
+
+		int count = symbolCount - decodeLength;
+		int written0 = 0;
+		int written1 = segmentStarts[1];
+		int written2 = segmentStarts[2];
+		int written3 = segmentStarts[3];
+		time = stats.addPhase(CompressionStats.PHASE_TABLE, time);
+
+		/*
+		 * The next byte to read, the bits that have been read but not used, left aligned, and how many of them are 
+		 * valid for each stream. The first stream carries on from the end of the information for decoding, which can 
+		 * end partway through a byte. A count below zero means that many bits still have to be skipped, which the first
+		 * refill of the stream does.
+		 */
+		int position0 = start0 + (int)(info.bitsRead() >>> 3);
+		int position1 = start1;
+		int position2 = start2;
+		int position3 = start3;
+		long bits0 = 0;
+		long bits1 = 0;
+		long bits2 = 0;
+		long bits3 = 0;
+		int bitCount0 = -(int)(info.bitsRead() & 7);
+		int bitCount1 = 0;
+		int bitCount2 = 0;
+		int bitCount3 = 0;
+
+		/*
+		 * Every segment is at least as long as the last one, so decode that many chars from all four streams together,
+		 * for as long as every stream can read eight bytes at once. The bytes after the end of a stream belong to the 
+		 * next one, and the table entry of a code is the same whatever bits follow it, so reading them does no harm.
+		 */
+		int shortest = count - HuffmanEncode.segmentStart(count, 3);
+		int decoded = 0;
+
+		while (decoded < shortest && position0 <= limit - 8 && position1 <= limit - 8 && position2 <= limit - 8 
+				&& position3 <= limit - 8) {
+			if (bitCount0 < tableBits) {
+				int n = (64 - bitCount0) >>> 3;
+				bits0 |= (bytes.getLong(position0) >>> (64 - n * 8)) << (64 - bitCount0 - n * 8);
+				position0 += n;
+				bitCount0 += n * 8;
+			}
+
+			if (bitCount1 < tableBits) {
+				int n = (64 - bitCount1) >>> 3;
+				bits1 |= (bytes.getLong(position1) >>> (64 - n * 8)) << (64 - bitCount1 - n * 8);
+				position1 += n;
+				bitCount1 += n * 8;
+			}
+
+			if (bitCount2 < tableBits) {
+				int n = (64 - bitCount2) >>> 3;
+				bits2 |= (bytes.getLong(position2) >>> (64 - n * 8)) << (64 - bitCount2 - n * 8);
+				position2 += n;
+				bitCount2 += n * 8;
+			}
+
+			if (bitCount3 < tableBits) {
+				int n = (64 - bitCount3) >>> 3;
+				bits3 |= (bytes.getLong(position3) >>> (64 - n * 8)) << (64 - bitCount3 - n * 8);
+				position3 += n;
+				bitCount3 += n * 8;
+			}
+
+			int entry0 = entries[(int)(bits0 >>> (64 - tableBits))];
+			int entry1 = entries[(int)(bits1 >>> (64 - tableBits))];
+			int entry2 = entries[(int)(bits2 >>> (64 - tableBits))];
+			int entry3 = entries[(int)(bits3 >>> (64 - tableBits))];
+
+			bits0 <<= entry0 & 0xFF;
+			bits1 <<= entry1 & 0xFF;
+			bits2 <<= entry2 & 0xFF;
+			bits3 <<= entry3 & 0xFF;
+			bitCount0 -= entry0 & 0xFF;
+			bitCount1 -= entry1 & 0xFF;
+			bitCount2 -= entry2 & 0xFF;
+			bitCount3 -= entry3 & 0xFF;
+
+			written0 = Optimization.expand((char)(entry0 >>> 16), expansions, text, written0);
+			written1 = Optimization.expand((char)(entry1 >>> 16), expansions, text, written1);
+			written2 = Optimization.expand((char)(entry2 >>> 16), expansions, text, written2);
+			written3 = Optimization.expand((char)(entry3 >>> 16), expansions, text, written3);
+			decoded++;
+		}
+
+		//Decode the chars left in each segment one stream at a time, from the first bit the loop did not use.
+		int end1 = HuffmanEncode.segmentStart(count, 1);
+		int end2 = HuffmanEncode.segmentStart(count, 2);
+		int end3 = HuffmanEncode.segmentStart(count, 3);
+
+		decodeRest(bytes, start0, start1, position0 * 8L - bitCount0, end1 - decoded, expansions, written0);
+		decodeRest(bytes, start1, start2, position1 * 8L - bitCount1, end2 - end1 - decoded, expansions, written1);
+		decodeRest(bytes, start2, start3, position2 * 8L - bitCount2, end3 - end2 - decoded, expansions, written2);
+		decodeRest(bytes, start3, limit, position3 * 8L - bitCount3, shortest - decoded, expansions, written3);
+
+		stats.addPhase(CompressionStats.PHASE_DECODE, time);
+		countBlock(code, data, symbolCount, rawLength, stats);
+
+		return rawLength;
+	}
+
+	/**
+	 * Decodes the chars left in one stream of an interleaved block with a BitReader, which reads the missing bits at 
+	 * the end of the stream as zeroes.
+	 * @param bytes The encoded bits of every stream of the block.
+	 * @param start The offset of the first byte of the stream in the buffer.
+	 * @param end The offset after the last byte of the stream in the buffer.
+	 * @param bitPosition The offset in the buffer, in bits, of the first bit that has not been used.
+	 * @param symbols The number of chars left to decode.
+	 * @param expansions The substrings that the replacement chars of the block stand for.
+	 * @param written The position in the text the next char is written at.
+	 */
+	private void decodeRest(ByteBuffer bytes, int start, int end, long bitPosition, int symbols, char[][] expansions, 
+			int written) {
+		ByteBuffer stream = bytes.duplicate();
+		stream.limit(end);
+		stream.position((int)Math.min(end, Math.max(start, bitPosition >>> 3)));
+
+		BitReader bits = new BitReader(stream);
+		int skip = (int)(bitPosition & 7);
+
+		if (skip > 0) {
+			bits.peek(skip);
+			bits.skip(skip);
+		}
+
+		for (int i = 0; i < symbols; i++) {
+			written = Optimization.expand(table.decode(bits), expansions, chars, written);
+		}
+	}
+
+	/**
+	 * Decodes the literals and matches of a block that was compressed with LZ77. Each literal is written to the text 
+	 * as it is, and each escape char is followed by the length and distance of a match, whose chars are copied from 
+	 * the text that was already decoded. A match can overlap the chars it copies, so a short run back is repeated.
+	 * @param code The canonical code of the literals of the block.
+	 * @param data The encoded bits of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of literals to decode, counting the escape chars.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If a match reaches back before the start of the block or past its end.
+	 */
+	int decodeMatchSymbols(CanonicalCode code, ByteBuffer data, int symbolCount, int rawLength, 
+			CompressionStats stats) throws IOException {
+		long time = System.nanoTime();
+
+		table.build(code, literalMaxLength);
+		lengthTable.build(lengthCode, lengthMaxLength);
+		distanceTable.build(distanceCode, distanceMaxLength);
+		BitReader bits = new BitReader(data);
+
+		if (chars.length < rawLength) {
+			chars = new char[rawLength];
+		}
+
+		char[] text = chars;
+		int written = 0;
+		time = stats.addPhase(CompressionStats.PHASE_TABLE, time);
+
+		for (int i = 0; i < symbolCount; i++) {
+			char c = table.decode(bits);
+
+			if (c != escape) {
+				text[written++] = c;
+				continue;
+			}
+
+			int slot = lengthTable.decode(bits);
+			int length = MatchFinder.MIN_MATCH + MatchFinder.slotBase(slot) + bits.read(MatchFinder.extraBits(slot));
+			slot = distanceTable.decode(bits);
+			int distance = 1 + MatchFinder.slotBase(slot) + bits.read(MatchFinder.extraBits(slot));
+
+			if (distance > written || length > rawLength - written) {
+				throw new IOException("A match of a block reaches outside the block, the file is damaged");
+			}
+
+			//A match that does not overlap its source is copied at once, and one that does is copied a char at a time.
+			if (distance >= length) {
+				System.arraycopy(text, written - distance, text, written, length);
+			}
+			else {
+				for (int j = 0; j < length; j++) {
+					text[written + j] = text[written - distance + j];
+				}
+			}
+
+			written += length;
+		}
+
+		stats.addPhase(CompressionStats.PHASE_DECODE, time);
+
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += symbolCount;
+		stats.encodedBits += (data.limit() - data.position()) * 8L;
+
+		for (CanonicalCode blockCode : new CanonicalCode[] {code, lengthCode, distanceCode}) {
+			stats.codeCount += blockCode.lengths.length;
+
+			for (int length : blockCode.lengths) {
+				stats.codeLengthSum += length;
+			}
+		}
+
+		return rawLength;
+	}
+
+	/**
+	 * Copies the chars of a stored block into the text, each from 1 byte or from 2 bytes with the high byte first.
+	 * @param data The chars of the block, between the position and the limit of the buffer.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If the number of bytes does not match the number of chars.
+	 */
+	int decodeStoredSymbols(ByteBuffer data, int rawLength, CompressionStats stats) throws IOException {
+		long time = System.nanoTime();
+		int dataLength = data.limit() - data.position();
+
+		if ((storedCharBytes != 1 && storedCharBytes != 2) || (long)rawLength * storedCharBytes != dataLength) {
+			throw new IOException("Length of a stored block does not match its chars, the file is damaged");
+		}
+
+		if (chars.length < rawLength) {
+			chars = new char[rawLength];
+		}
+
+		ByteBuffer bytes = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+		if (storedCharBytes == 2) {
+			bytes.asCharBuffer().get(chars, 0, rawLength);
+		}
+		else {
+			int position = bytes.position();
+
+			for (int i = 0; i < rawLength; i++) {
+				chars[i] = (char)(bytes.get(position + i) & 0xFF);
+			}
+		}
+
+		stats.addPhase(CompressionStats.PHASE_DECODE, time);
+
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += rawLength;
+		stats.encodedBits += dataLength * 8L;
+
+		return rawLength;
+	}
+
+	/**
+	 * Decodes the information for decoding at the start of a block into strDecode. For each substring length, the 
+	 * first char is the number of replacement chars, each followed by the substring it replaces.
+	 * @param bits The bits of the block, starting at the information for decoding.
+	 * @return The number of chars in the information for decoding.
+	 */
+	private int decodeInfo(BitReader bits) {
+		int decodeLength = 0;
+
+		for (int substrLen = Optimization.MAX_SUBSTR_LEN; substrLen >= Optimization.MIN_SUBSTR_LEN; substrLen--) {
+			char numSubstrings = table.decode(bits);
+			strDecode[decodeLength++] = numSubstrings;
+
+			for (int i = 0; i < numSubstrings * (substrLen + 1); i++) {
+				strDecode[decodeLength++] = table.decode(bits);
+			}
+		}
+
+		return decodeLength;
+	}
+
+	/**
+	 * Adds a block that was decoded with its own code to the statistics.
+	 * @param code The canonical code of the block.
+	 * @param data The encoded bits of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of chars that were decoded.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 */
+	private void countBlock(CanonicalCode code, ByteBuffer data, int symbolCount, int rawLength, 
+			CompressionStats stats) {
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += symbolCount;
+		stats.encodedBits += (data.limit() - data.position()) * 8L;
+		stats.codeCount += code.lengths.length;
+
+		for (int length : code.lengths) {
+			stats.codeLengthSum += length;
+		}
+	}
+
+	/**
+	 * Decodes the chars of a block that was encoded with a model, using the decoding table and the substrings of the
+	 * model, which were built when the model was read.
+	 * @param model The model the block was encoded with.
+	 * @param data The encoded bits of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of chars to decode.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 */
+	int decodeModelSymbols(HuffmanModel model, ByteBuffer data, int symbolCount, int rawLength,
+			CompressionStats stats) {
+		long time = System.nanoTime();
+		BitReader bits = new BitReader(data);
+
+		if (chars.length < rawLength) {
+			chars = new char[rawLength];
+		}
+
+		int written = 0;
+
+		for (int i = 0; i < symbolCount; i++) {
+			written = Optimization.expand(model.table.decode(bits), model.expansions, chars, written);
+		}
+
+		stats.addPhase(CompressionStats.PHASE_DECODE, time);
+
+		stats.blocks++;
+		stats.rawChars += rawLength;
+		stats.symbols += symbolCount;
+		stats.encodedBits += (data.limit() - data.position()) * 8L;
+
+		return rawLength;
+	}
+
+	/**
+	 * Decodes and decompresses one block from a stream, after the number of chars in the block has been read.
+	 * @param in The stream the block is read from.
+	 * @param rawLength The number of chars in the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If the block could not be read.
+	 */
+	int decodeBlock(DataInputStream in, int rawLength, CompressionStats stats) throws IOException {
+		long time = System.nanoTime();
+		int expected = in.readInt();
+		int symbolCount = in.readInt();
+		int maxLength = in.readUnsignedByte();
+
+		//A block encoded with a model has the ID of the model instead of a code table.
+		HuffmanModel model = maxLength == HuffmanEncode.MODEL_BLOCK ? ModelCache.get(in.readInt()) : null;
+		CanonicalCode code = null;
+
+		//A block compressed with LZ77 has an escape char and three code tables, each after its longest code length.
+		if (maxLength == HuffmanEncode.LZ77_BLOCK) {
+			escape = in.readChar();
+			literalMaxLength = in.readUnsignedByte();
+			code = CanonicalCode.read(in);
+			lengthMaxLength = in.readUnsignedByte();
+			lengthCode = CanonicalCode.read(in);
+			distanceMaxLength = in.readUnsignedByte();
+			distanceCode = CanonicalCode.read(in);
+		}
+		else if (maxLength == HuffmanEncode.STORED_BLOCK) {
+			storedCharBytes = in.readUnsignedByte();
+		}
+		else if (model == null) {
+			code = CanonicalCode.read(in);
+		}
+
+		//An interleaved block has the length of each stream but the last and the start of each segment but the first.
+		if (isInterleaved(maxLength)) {
+			for (int i = 0; i < HuffmanEncode.STREAMS - 1; i++) {
+				streamLengths[i] = in.readInt();
+			}
+
+			for (int i = 1; i < HuffmanEncode.STREAMS; i++) {
+				segmentStarts[i] = in.readInt();
+			}
+		}
+
+		int dataLength = in.readInt();
+
+		if (data.length < dataLength) {
+			data = new byte[dataLength];
+		}
+
+		in.readFully(data, 0, dataLength);
+		stats.addPhase(CompressionStats.PHASE_READ, time);
+
+		ByteBuffer blockData = ByteBuffer.wrap(data, 0, dataLength);
+
+		return decodeChecked(model, code, maxLength, blockData, symbolCount, rawLength, expected, stats);
+	}
+
+	/**
+	 * Decodes and decompresses one block straight from a buffer, such as a memory-mapped part of the compressed file,
+	 * after the number of chars in the block has been read.
+	 * @param in The buffer the block is read from, starting at its position.
+	 * @param rawLength The number of chars in the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If the block was encoded with a model that could not be read.
+	 */
+	int decodeBlock(ByteBuffer in, int rawLength, CompressionStats stats) throws IOException {
+		int expected = in.getInt();
+		int symbolCount = in.getInt();
+		int maxLength = in.get() & 0xFF;
+
+		//A block encoded with a model has the ID of the model instead of a code table.
+		HuffmanModel model = maxLength == HuffmanEncode.MODEL_BLOCK ? ModelCache.get(in.getInt()) : null;
+		CanonicalCode code = null;
+
+		//A block compressed with LZ77 has an escape char and three code tables, each after its longest code length.
+		if (maxLength == HuffmanEncode.LZ77_BLOCK) {
+			escape = in.getChar();
+			literalMaxLength = in.get() & 0xFF;
+			code = CanonicalCode.read(in);
+			lengthMaxLength = in.get() & 0xFF;
+			lengthCode = CanonicalCode.read(in);
+			distanceMaxLength = in.get() & 0xFF;
+			distanceCode = CanonicalCode.read(in);
+		}
+		else if (maxLength == HuffmanEncode.STORED_BLOCK) {
+			storedCharBytes = in.get() & 0xFF;
+		}
+		else if (model == null) {
+			code = CanonicalCode.read(in);
+		}
+
+		//An interleaved block has the length of each stream but the last and the start of each segment but the first.
+		if (isInterleaved(maxLength)) {
+			for (int i = 0; i < HuffmanEncode.STREAMS - 1; i++) {
+				streamLengths[i] = in.getInt();
+			}
+
+			for (int i = 1; i < HuffmanEncode.STREAMS; i++) {
+				segmentStarts[i] = in.getInt();
+			}
+		}
+		int dataLength = in.getInt();
+
+		//The bits are read from the same buffer without copying them.
+		ByteBuffer blockData = in.slice();
+		blockData.limit(dataLength);
+		in.position(in.position() + dataLength);
+
+		return decodeChecked(model, code, maxLength, blockData, symbolCount, rawLength, expected, stats);
+	}
+
+	/**
+	 * Decodes the chars of a block, then checks the checksum of its text and adds it to the checksum of the file.
+	 * @param model The model the block was encoded with, or null if the block has its own code.
+	 * @param code The canonical code of the block, or null if the block was encoded with a model.
+	 * @param maxLength The longest code length of the block, with INTERLEAVED_BLOCK added if it is interleaved, or 
+	 * LZ77_BLOCK or STORED_BLOCK if it was compressed with LZ77 or stored raw.
+	 * @param data The encoded bits of the block, between the position and the limit of the buffer.
+	 * @param symbolCount The number of chars to decode.
+	 * @param rawLength The number of chars in the text of the block.
+	 * @param expected The checksum stored in the block.
+	 * @param stats The statistics the block is added to.
+	 * @return The number of chars in the text of the block, which is held by chars().
+	 * @throws IOException If the bits could not be decoded or the text does not match the checksum.
+	 */
+	private int decodeChecked(HuffmanModel model, CanonicalCode code, int maxLength, ByteBuffer data, int symbolCount,
+			int rawLength, int expected, CompressionStats stats) throws IOException {
+		int length;
+
+		/*
+		 * Damaged bits can decode to more chars than the block holds, and a damaged code table can have codes longer 
+		 * than its longest code length or leave bits that match no code, which are found here before the checksum is.
+		 */
+		try {
+			if (model != null) {
+				length = decodeModelSymbols(model, data, symbolCount, rawLength, stats);
+			}
+			else if (maxLength == HuffmanEncode.LZ77_BLOCK) {
+				length = decodeMatchSymbols(code, data, symbolCount, rawLength, stats);
+			}
+			else if (maxLength == HuffmanEncode.STORED_BLOCK) {
+				length = decodeStoredSymbols(data, rawLength, stats);
+			}
+			else if (isInterleaved(maxLength)) {
+				length = decodeInterleavedSymbols(code, maxLength & ~HuffmanEncode.INTERLEAVED_BLOCK, data, 
+						symbolCount, rawLength, stats);
+			}
+			else {
+				length = decodeSymbols(code, maxLength, data, symbolCount, rawLength, stats);
+			}
+		}
+		catch (IndexOutOfBoundsException | IllegalStateException exc) {
+			throw new IOException("A block could not be decoded, the file is damaged", exc);
+		}
+
+		long time = System.nanoTime();
+
+		if (checksum.of(chars, length) != expected) {
+			throw new IOException("Checksum of a block does not match, the file is damaged");
+		}
+
+		streamChecksum.update(expected >>> 24);
+		streamChecksum.update(expected >>> 16);
+		streamChecksum.update(expected >>> 8);
+		streamChecksum.update(expected);
+		stats.addPhase(CompressionStats.PHASE_CHECKSUM, time);
+
+		return length;
+	}
+
+	/**
+	 * @param maxLength The longest code length of a block, as written in its header.
+	 * @return Whether the block is interleaved, which is never the case for a block encoded with a model or LZ77, or 
+	 * a stored block.
+	 */
+	private static boolean isInterleaved(int maxLength) {
+		return (maxLength & HuffmanEncode.INTERLEAVED_BLOCK) != 0 && maxLength < HuffmanEncode.STORED_BLOCK;
+	}
+
+	/**
+	 * Starts the checksum of a file over, before its first block is decoded.
+	 */
+	void startFile() {
+		streamChecksum.reset();
+	}
+
+	/**
+	 * Checks the checksum of the whole file once every block has been decoded.
+	 * @param expected The checksum stored after the end marker.
+	 * @throws IOException If the blocks that were decoded do not match the checksum, such as when a block is missing.
+	 */
+	void checkFile(int expected) throws IOException {
+		if ((int)streamChecksum.getValue() != expected) {
+			throw new IOException("Checksum of the file does not match, the file is damaged");
+		}
+	}
+
+	/**
+	 * @return The array holding the text of the last block that was decoded, which is overwritten by the next block.
+	 */
+	char[] chars() {
+		return chars;
+	}
+
+	/**
+	 * Writes the text of the last block that was decoded. In chars mode the text is written as UTF-8, and in bytes 
+	 * mode each char is written as the byte with the same value, with no charset encoding.
+	 * @param length The number of chars in the text.
+	 * @param mode The mode the block was compressed in.
+	 * @param out The writer used for chars mode, which writes to rawOut.
+	 * @param rawOut The stream used for bytes mode.
+	 * @throws IOException If the text could not be written.
+	 */
+	void writeText(int length, int mode, Writer out, OutputStream rawOut) throws IOException {
+		if (mode == HuffmanEncode.MODE_BYTES) {
+			if (bytes.length < length) {
+				bytes = new byte[length];
+			}
+
+			for (int i = 0; i < length; i++) {
+				bytes[i] = (byte)chars[i];
+			}
+
+			rawOut.write(bytes, 0, length);
+		}
+		else {
+			out.write(chars, 0, length);
+		}
+	}
+
+	/**
+	 * Checks the magic number at the start of a compressed file and reads the mode after it.
+	 * @param in The buffer the compressed file is read from.
+	 * @return The mode the file was compressed in.
+	 * @throws IOException If the file is not a compressed file.
+	 */
+	private static int readMode(ByteBuffer in) throws IOException {
+		if (in.remaining() < 5 || in.getInt() != HuffmanEncode.MAGIC) {
+			throw new IOException("Not a Huffman compressed file");
+		}
+
+		return in.get() & 0xFF;
+	}
+
+	/**
+	 * @param compressed A payload compressed in memory.
+	 * @return FRAMED_BLOCK or FRAMED_RAW if the payload is one frame, or 0 if it is a whole compressed file.
+	 */
+	private static int frameOf(byte[] compressed) {
+		int frame = compressed.length > 0 ? compressed[0] & 0xFF & ~HuffmanEncode.MODE_BYTES : 0;
+
+		return frame == HuffmanEncode.FRAMED_BLOCK || frame == HuffmanEncode.FRAMED_RAW ? frame : 0;
+	}
+
+	/**
+	 * Decodes the block of a framed payload into the chars array.
+	 * @param compressed The framed payload.
+	 * @param payloadStats The statistics of the payload.
+	 * @return The number of chars in the block.
+	 * @throws IOException If the block could not be decoded.
+	 */
+	private int decodeFramed(byte[] compressed, CompressionStats payloadStats) throws IOException {
+		ByteBuffer in = ByteBuffer.wrap(compressed, 1, compressed.length - 1);
+
+		if (in.remaining() < 4) {
+			throw new IOException("Framed block is cut short, the file is damaged");
+		}
+
+		return decodeBlock(in, in.getInt(), payloadStats);
+	}
+
+	/**
+	 * Decompresses a compressed file or framed payload held in memory.
+	 * @param compressed The compressed file, or the frame written by HuffmanCompressor for a payload of one block.
+	 * @return The text as UTF-8 for a file compressed in chars mode, or the raw bytes for a file compressed in bytes 
+	 * mode.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	public byte[] decompress(byte[] compressed) throws IOException {
+		CompressionStats dataStats = new CompressionStats();
+		long start = System.nanoTime();
+
+		ByteBuffer in = ByteBuffer.wrap(compressed);
+		int frame = frameOf(compressed);
+		int mode = frame != 0 ? (compressed[0] & 0xFF) - frame : readMode(in);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 2);
+		Writer out = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+
+		if (frame == HuffmanEncode.FRAMED_RAW) {
+
+			//The payload is already the UTF-8 text or the raw bytes.
+			output.write(compressed, 1, compressed.length - 1);
+		}
+		else if (frame == HuffmanEncode.FRAMED_BLOCK) {
+			int length = decodeFramed(compressed, dataStats);
+
+			long time = System.nanoTime();
+			writeText(length, mode, out, output);
+			dataStats.addPhase(CompressionStats.PHASE_WRITE, time);
+		}
+		else {
+			int rawLength;
+			startFile();
+
+			//A block with no chars marks the end of the blocks.
+			while ((rawLength = in.getInt()) != 0) {
+				int length = decodeBlock(in, rawLength, dataStats);
+
+				long time = System.nanoTime();
+				writeText(length, mode, out, output);
+				dataStats.addPhase(CompressionStats.PHASE_WRITE, time);
+			}
+
+			checkFile(in.getInt());
+		}
+
+		out.flush();
+
+		dataStats.bytesIn = compressed.length;
+		dataStats.bytesOut = output.size();
+		dataStats.totalNanos = System.nanoTime() - start;
+		stats.add(dataStats);
+
+		return output.toByteArray();
+	}
+
+	/**
+	 * Decompresses a compressed file or framed payload held in memory to a string.
+	 * @param compressed The compressed file, or the frame written by HuffmanCompressor for a payload of one block.
+	 * @return The text, where each char is one byte for a file compressed in bytes mode.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	public String decompressString(byte[] compressed) throws IOException {
+		CompressionStats textStats = new CompressionStats();
+		long start = System.nanoTime();
+
+		ByteBuffer in = ByteBuffer.wrap(compressed);
+		int frame = frameOf(compressed);
+		int mode = frame != 0 ? (compressed[0] & 0xFF) - frame : readMode(in);
+		String text;
+
+		if (frame == HuffmanEncode.FRAMED_RAW) {
+			text = new String(compressed, 1, compressed.length - 1, 
+					mode == HuffmanEncode.MODE_BYTES ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+		}
+		else if (frame == HuffmanEncode.FRAMED_BLOCK) {
+			int length = decodeFramed(compressed, textStats);
+			text = new String(chars, 0, length);
+		}
+		else {
+			StringBuilder strBuild = new StringBuilder(compressed.length * 2);
+			int rawLength;
+			startFile();
+
+			while ((rawLength = in.getInt()) != 0) {
+				int length = decodeBlock(in, rawLength, textStats);
+
+				long time = System.nanoTime();
+				strBuild.append(chars, 0, length);
+				textStats.addPhase(CompressionStats.PHASE_WRITE, time);
+			}
+
+			checkFile(in.getInt());
+			text = strBuild.toString();
+		}
+
+		//The text is never encoded as bytes, so its chars are counted as the bytes out.
+		textStats.bytesIn = compressed.length;
+		textStats.bytesOut = text.length();
+		textStats.totalNanos = System.nanoTime() - start;
+		stats.add(textStats);
+
+		return text;
+	}
+
+	/**
+	 * Decodes and decompresses a compressed file from a stream, one block at a time, and writes the text as UTF-8 (or 
+	 * the raw bytes, for a file compressed in bytes mode). Only one block is held in memory no matter how long the 
+	 * text is.
+	 * @param input The stream the compressed file is read from.
+	 * @param output The stream the text is written to, which is not closed.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public CompressionStats decompress(InputStream input, OutputStream output) throws IOException {
+		return decompress(input, ChannelTextWriter.channelOf(output));
+	}
+
+	/**
+	 * Decodes and decompresses a compressed file from a stream, one block at a time, and writes the text as UTF-8 (or 
+	 * the raw bytes, for a file compressed in bytes mode) to a channel. Only one block is held in memory no matter how 
+	 * long the text is, and its text is written through a pooled direct buffer, so it is never copied onto the heap on
+	 * its way out.
+	 * @param input The stream the compressed file is read from.
+	 * @param output The channel the text is written to, which is not closed.
+	 * @return The statistics of decompressing the file.
+	 * @throws IOException If the compressed file could not be read or the text could not be written.
+	 */
+	public CompressionStats decompress(InputStream input, WritableByteChannel output) throws IOException {
+		CompressionStats streamStats = new CompressionStats();
+		long start = System.nanoTime();
+
+		//Count the bytes read for the statistics.
+		CountingInputStream countedInput = new CountingInputStream(input);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(countedInput, BitWriter.BUFFER_SIZE));
+
+		if (in.readInt() != HuffmanEncode.MAGIC) {
+			throw new IOException("Not a Huffman compressed file");
+		}
+
+		ChannelTextWriter out = new ChannelTextWriter(output, in.readUnsignedByte());
+
+		try {
+			int rawLength;
+			startFile();
+
+			//A block with no chars marks the end of the blocks.
+			while ((rawLength = in.readInt()) != 0) {
+				int length = decodeBlock(in, rawLength, streamStats);
+
+				long time = System.nanoTime();
+				out.write(chars, length);
+				streamStats.addPhase(CompressionStats.PHASE_WRITE, time);
+			}
+
+			checkFile(in.readInt());
+
+			long time = System.nanoTime();
+			out.finish();
+			streamStats.addPhase(CompressionStats.PHASE_WRITE, time);
+		}
+		finally {
+			out.close();
+		}
+
+		streamStats.bytesIn = countedInput.count;
+		streamStats.bytesOut = out.count;
+		streamStats.totalNanos = System.nanoTime() - start;
+		stats.add(streamStats);
+
+		return streamStats;
+	}
+}
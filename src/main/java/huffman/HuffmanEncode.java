@@ -0,0 +1,650 @@
+package huffman;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @author Dev Patel
+ * date: 01/21/2021
+ * description: This class is used to compress a text file using Huffman encoding as well as the substitution of 
+ * substrings with characters. Other files can be compressed the same way as raw bytes.
+ */
+public class HuffmanEncode {
+	
+	//The first four bytes of every compressed file ("HUFF").
+	public static final int MAGIC = 0x48554646;
+	
+	//The maximum number of chars (or bytes) that are compressed together as one block.
+	public static final int BLOCK_SIZE = 1 << 20;
+	
+	/*
+	 * The modes a file can be compressed in, which are written right after the magic number. Chars mode compresses 
+	 * UTF-8 text as chars. Bytes mode compresses any file as raw bytes with no charset decoding, using each byte as a 
+	 * char between 0 and 255 inclusive.
+	 */
+	public static final int MODE_CHARS = 0;
+	public static final int MODE_BYTES = 1;
+	
+	/*
+	 * The first byte of a payload of at most BLOCK_SIZE chars that HuffmanCompressor compresses in memory, with the
+	 * mode added to it, in place of the magic number. A framed block is followed by the one block of the payload,
+	 * with no end marker, checksum of the file or index, since a payload held in memory is never read in part or
+	 * added to. A raw frame is followed by the payload itself (as UTF-8 in chars mode), for a payload that no block
+	 * would make smaller. Neither is the first byte of the magic number, so only HuffmanDecompressor reads them.
+	 */
+	public static final int FRAMED_BLOCK = 0x80;
+	public static final int FRAMED_RAW = 0x90;
+	
+	/*
+	 * The value written in place of the longest code length of a block that was encoded with a model. The ID of the
+	 * model follows it instead of a code table, and the encoded bits hold only the substituted text.
+	 */
+	public static final int MODEL_BLOCK = 0xFF;
+	
+	/*
+	 * The number of bitstreams the chars of an interleaved block are split into, and the flag added to the longest 
+	 * code length of an interleaved block. Each stream can be decoded without the others, so the decoder follows all 
+	 * of them in the same loop instead of waiting on one lookup at a time.
+	 */
+	public static final int STREAMS = 4;
+	public static final int INTERLEAVED_BLOCK = 0x80;
+	
+	/*
+	 * The value written in place of the longest code length of a block that was compressed with LZ77. The escape char 
+	 * that marks the matches follows it, and then the codes of the literals, the length slots and the distance slots, 
+	 * each as its longest code length and its code table.
+	 */
+	public static final int LZ77_BLOCK = 0xFE;
+	
+	/*
+	 * The value written in place of the longest code length of a block that is stored raw, because it would not have 
+	 * been any smaller encoded. The number of bytes each char is stored in (1 or 2) follows it instead of a code 
+	 * table, and the chars follow the number of bytes of data, with the high byte first if they are 2 bytes.
+	 */
+	public static final int STORED_BLOCK = 0xFD;
+	
+	/*
+	 * The stages a block can be compressed with before it is given Huffman codes. Substitution replaces common 
+	 * substrings of 2 to 6 chars with chars that do not occur in the block, and LZ77 replaces repeated runs of chars 
+	 * with matches that point back to where they occurred before.
+	 */
+	public static final int STAGE_SUBSTITUTION = 0;
+	public static final int STAGE_LZ77 = 1;
+	
+	/*
+	 * The compression levels, from giving the chars Huffman codes with no stage before it, to running the stage in 
+	 * full. Each level in between substitutes one more substring length (from 2 up to level + 1), or looks twice as 
+	 * far along the hash chains for LZ77 matches, with the settings in MatchFinder.CHAIN and the arrays after it.
+	 */
+	public static final int LEVEL_FAST = 0;
+	public static final int LEVEL_MAX = 5;
+	
+	/*
+	 * The compressor each thread of a pool encodes blocks with, so that the arrays of a compressor are reused by 
+	 * every block the thread encodes.
+	 */
+	private static final ThreadLocal<HuffmanCompressor> COMPRESSORS = ThreadLocal.withInitial(HuffmanCompressor::new);
+	
+	/**
+	 * Counts how many times each char occurs within a string.
+	 * @param str The string to be counted.
+	 * @return The frequency of each char, indexed by the char.
+	 */
+	static int[] countChars(String str) {
+		int[] freqs = new int[Character.MAX_VALUE + 1];
+		
+		for (int i = 0; i < str.length(); i++) {
+			freqs[str.charAt(i)]++;
+		}
+		
+		return freqs;
+	}
+	
+	/**
+	 * Counts how many times each char occurs within a string, adding to an array that already exists, and lists the 
+	 * chars that occur so that the rest of the array never has to be looked at.
+	 * @param str The string to be counted.
+	 * @param freqs The array the frequency of each char is added to, indexed by the char, which must be all zeroes.
+	 * @param symbols The array used to list the chars that occur, from least to greatest.
+	 * @return The number of chars that occur.
+	 */
+	static int countChars(String str, int[] freqs, char[] symbols) {
+		int count = 0;
+		
+		for (int i = 0; i < str.length(); i++) {
+			char currentChar = str.charAt(i);
+			
+			if (freqs[currentChar]++ == 0) {
+				symbols[count++] = currentChar;
+			}
+		}
+		
+		Arrays.sort(symbols, 0, count);
+		
+		return count;
+	}
+	
+	/**
+	 * Uses the frequencies of the chars in a string to build a Huffman tree that encodes each character to a binary 
+	 * value. 
+	 * @param freqs The frequency of each char, indexed by the char.
+	 * @return The Huffman tree made for the frequencies.
+	 */
+	static Node makeTree(int[] freqs) {
+		char[] symbols = new char[freqs.length];
+		int count = 0;
+		
+		for (int i = 0; i < freqs.length; i++) {
+			if (freqs[i] > 0) {
+				symbols[count++] = (char)i;
+			}
+		}
+		
+		return makeTree(freqs, symbols, count);
+	}
+	
+	/**
+	 * Uses the frequencies of the chars in a string to build a Huffman tree, looking only at the chars that occur.
+	 * @param freqs The frequency of each char, indexed by the char.
+	 * @param symbols The chars that occur, from least to greatest.
+	 * @param count The number of chars that occur.
+	 * @return The Huffman tree made for the frequencies.
+	 */
+	static Node makeTree(int[] freqs, char[] symbols, int count) {
+		
+		//Priority queue of the nodes that do not have a parent yet, with the lowest frequency first.
+		PriorityQueue<Node> nodes = new PriorityQueue<>(Math.max(1, count), 
+				(node1, node2) -> Integer.compare(node1.freq, node2.freq));
+		
+		//Make a node for every char that occurs, holding its frequency.
+		for (int i = 0; i < count; i++) {
+			nodes.add(new Node(symbols[i], freqs[symbols[i]]));
+		}
+		
+		/*
+		 * This loop builds the Huffman tree by assigning the two nodes with the lowest frequencies as children of a 
+		 * new parent node until there is one node left (the root node of the tree).
+		 */
+		while (nodes.size() > 1) {
+			Node childLeft = nodes.poll();
+			Node childRight = nodes.poll();
+			
+			//Add the frequency of both child nodes to build a parent node. 
+			Node parent = new Node(childLeft.freq + childRight.freq);
+			parent.leftNode = childLeft;
+			parent.rightNode = childRight;
+			
+			nodes.add(parent);
+		}
+		
+		//Return the root node (which holds the entire Huffman tree). 
+		return nodes.poll();
+	}
+	
+	/**
+	 * Use the root node (Huffman tree) to find the binary value for each character, and store the value and its 
+	 * number of bits in arrays indexed by the character.
+	 * @param n The node holding the contents of the part of the tree to be traversed through.
+	 * @param bits The binary value of the path taken to reach the node.
+	 * @param depth The number of bits in the path taken to reach the node.
+	 * @param codes The array used to store the binary value of each character.
+	 * @param lengths The array used to store the number of bits in the binary value of each character.
+	 */
+	static void charsToBinary(Node n, int bits, int depth, int[] codes, int[] lengths) {
+		
+		/* 
+		 * If the node is the last node of the current path within the Huffman tree, store the binary value of the 
+		 * character represented by the node, as well as its length, to the arrays. A tree with only one character 
+		 * still needs one bit for it.
+		 */
+		if (n.leftNode == null && n.rightNode == null) {
+			codes[n.value] = bits;
+			lengths[n.value] = Math.max(1, depth);
+		}
+		
+		/*
+		 * If the node has a left child node, call this method using the left child and add a 0 to the binary value 
+		 * (representing the path taken to the left).
+		 */
+		if (n.leftNode != null) {
+			charsToBinary(n.leftNode, bits << 1, depth + 1, codes, lengths);
+		}
+		
+		/*
+		 * If the node has a right child node, call this method using the right child and add a 1 to the binary value
+		 * (representing the path taken to the right).
+		 */
+		if (n.rightNode != null) {
+			charsToBinary(n.rightNode, (bits << 1) | 1, depth + 1, codes, lengths);
+		}
+	}
+
+	/**
+	 * Finds the code length of each char when no code may be longer than a limit, using the package-merge algorithm. 
+	 * Starting from the chars sorted by frequency, each level pairs up the items of the level before into packages 
+	 * and merges them with the chars again. Taking the 2n - 2 cheapest items of the last level, a char's code length is
+	 * the number of times it was taken at any level.
+	 * @param freqs The frequency of each char, indexed by the char.
+	 * @param maxLength The longest a code may be, which must leave room for a code for every char.
+	 * @param lengths The array used to store the code length of each char.
+	 */
+	static void packageMerge(int[] freqs, int maxLength, int[] lengths) {
+		
+		//Sort the chars that occur by frequency.
+		int n = 0;
+		
+		for (int i = 0; i < freqs.length; i++) {
+			if (freqs[i] > 0) {
+				n++;
+			}
+		}
+		
+		Integer[] sorted = new Integer[n];
+		n = 0;
+		
+		for (int i = 0; i < freqs.length; i++) {
+			if (freqs[i] > 0) {
+				sorted[n++] = i;
+			}
+		}
+		
+		Arrays.sort(sorted, (char1, char2) -> Integer.compare(freqs[char1], freqs[char2]));
+		
+		/*
+		 * For each level, the weight of each item in order, and the char of each item, or -1 if the item is a package 
+		 * of two items from the level before.
+		 */
+		long[][] weights = new long[maxLength][];
+		int[][] items = new int[maxLength][];
+		
+		weights[0] = new long[n];
+		items[0] = new int[n];
+		
+		for (int i = 0; i < n; i++) {
+			weights[0][i] = freqs[sorted[i]];
+			items[0][i] = sorted[i];
+		}
+		
+		for (int level = 1; level < maxLength; level++) {
+			long[] previous = weights[level - 1];
+			int packages = previous.length / 2;
+			
+			weights[level] = new long[n + packages];
+			items[level] = new int[n + packages];
+			
+			//Merge the chars with the packages, both of which are already in order of weight.
+			int c = 0;
+			int p = 0;
+			
+			for (int i = 0; i < n + packages; i++) {
+				long packageWeight = p < packages ? previous[2 * p] + previous[2 * p + 1] : Long.MAX_VALUE;
+				
+				if (c < n && freqs[sorted[c]] <= packageWeight) {
+					weights[level][i] = freqs[sorted[c]];
+					items[level][i] = sorted[c++];
+				}
+				else {
+					weights[level][i] = packageWeight;
+					items[level][i] = -1;
+					p++;
+				}
+			}
+		}
+		
+		/*
+		 * Take the 2n - 2 cheapest items of the last level. The packages among them are made of the cheapest items of 
+		 * the level before, so walk down the levels taking twice as many items as there were packages.
+		 */
+		int taken = 2 * n - 2;
+		
+		for (int level = maxLength - 1; level >= 0; level--) {
+			int packages = 0;
+			
+			for (int i = 0; i < taken; i++) {
+				if (items[level][i] == -1) {
+					packages++;
+				}
+				else {
+					lengths[items[level][i]]++;
+				}
+			}
+			
+			taken = 2 * packages;
+		}
+	}
+	
+	/**
+	 * Writes the binary value of every char in a string as bits, and fills the final byte with zeroes. The decoder
+	 * knows how many chars to decode, so it never reads them.
+	 * @param str The string to be encoded.
+	 * @param codes The binary value of each char, indexed by the char.
+	 * @param lengths The number of bits in the binary value of each char, indexed by the char.
+	 * @param bits The writer the bits are written with.
+	 * @throws IOException If the bits could not be written.
+	 */
+	static void writeBits(String str, int[] codes, int[] lengths, BitWriter bits) throws IOException {
+		writeBits(str, 0, str.length(), codes, lengths, bits);
+	}
+	
+	/**
+	 * Writes the binary value of every char in part of a string as bits, and fills the final byte with zeroes.
+	 * @param str The string holding the part to be encoded.
+	 * @param from The position of the first char of the part.
+	 * @param to The position after the last char of the part.
+	 * @param codes The binary value of each char, indexed by the char.
+	 * @param lengths The number of bits in the binary value of each char, indexed by the char.
+	 * @param bits The writer the bits are written with.
+	 * @throws IOException If the bits could not be written.
+	 */
+	static void writeBits(String str, int from, int to, int[] codes, int[] lengths, BitWriter bits) throws IOException {
+		for (int i = from; i < to; i++) {
+			char currentChar = str.charAt(i);
+			bits.write(codes[currentChar], lengths[currentChar]);
+		}
+		
+		bits.finish();
+	}
+	
+	/**
+	 * Finds where a segment of an interleaved block starts. The chars after the information for decoding are split 
+	 * into STREAMS segments of the same length, except that the last ones are shorter when the chars do not divide 
+	 * evenly.
+	 * @param count The number of chars after the information for decoding.
+	 * @param segment The segment, between 0 and STREAMS inclusive.
+	 * @return The position of the first char of the segment, counted from the end of the information for decoding.
+	 */
+	static int segmentStart(int count, int segment) {
+		return Math.min(count, segment * ((count + STREAMS - 1) / STREAMS));
+	}
+	
+	/**
+	 * Reads chars until the block is full or there are no chars left.
+	 * @param reader The reader to read the chars from.
+	 * @param block The array the chars are read into.
+	 * @return The chars that were read, or null if there were none left.
+	 * @throws IOException If the chars could not be read.
+	 */
+	static String readBlock(Reader reader, char[] block) throws IOException {
+		int length = 0;
+		int read;
+		
+		while (length < block.length && (read = reader.read(block, length, block.length - length)) != -1) {
+			length += read;
+		}
+		
+		return length == 0 ? null : new String(block, 0, length);
+	}
+	
+	/**
+	 * Reads raw bytes until the block is full or there are no bytes left.
+	 * @param input The stream to read the bytes from.
+	 * @param block The array the bytes are read into.
+	 * @return The bytes that were read as chars between 0 and 255 inclusive, or null if there were none left.
+	 * @throws IOException If the bytes could not be read.
+	 */
+	static String readBlock(InputStream input, byte[] block) throws IOException {
+		int length = input.readNBytes(block, 0, block.length);
+		
+		//ISO-8859-1 maps every byte to the char with the same value, so this is a plain copy with no decoding.
+		return length == 0 ? null : new String(block, 0, length, StandardCharsets.ISO_8859_1);
+	}
+	
+	/**
+	 * Compresses and encodes UTF-8 text from a stream, one block of BLOCK_SIZE chars at a time, using the common 
+	 * ForkJoinPool.
+	 * @param input The stream of UTF-8 text to be compressed.
+	 * @param output The stream the compressed file is written to.
+	 * @return The statistics of compressing the text.
+	 * @throws IOException If the text could not be read or the compressed file could not be written.
+	 */
+	public static CompressionStats encode(InputStream input, OutputStream output) throws IOException {
+		return encode(input, output, ForkJoinPool.commonPool(), new EncodeSettings());
+	}
+	
+	/**
+	 * Compresses and encodes a stream, one block of BLOCK_SIZE chars (or bytes) at a time. Each block has its own 
+	 * substitutions and Huffman codes, so the blocks are encoded in parallel on the pool and written in order. Only 
+	 * two blocks per thread are held in memory no matter how long the stream is. The blocks are followed by an index 
+	 * of where each block starts.
+	 * @param input The stream to be compressed.
+	 * @param output The stream the compressed file is written to.
+	 * @param pool The pool the blocks are encoded on.
+	 * @param settings The settings the stream is compressed with.
+	 * @return The statistics of compressing the stream.
+	 * @throws IOException If the stream could not be read or the compressed file could not be written.
+	 */
+	public static CompressionStats encode(InputStream input, OutputStream output, ForkJoinPool pool, 
+			EncodeSettings settings) throws IOException {
+		return encode(input, output, pool, settings, null);
+	}
+	
+	/**
+	 * Compresses and encodes a stream as new blocks, either of a new compressed file or added to the end of one.
+	 * @param input The stream to be compressed.
+	 * @param output The stream the compressed file is written to, or the rest of it from the end of its last block.
+	 * @param pool The pool the blocks are encoded on.
+	 * @param settings The settings the stream is compressed with.
+	 * @param appendTo The index of the compressed file the blocks are added to, or null to write a new file.
+	 * @return The statistics of compressing the stream.
+	 * @throws IOException If the stream could not be read or the compressed file could not be written.
+	 */
+	private static CompressionStats encode(InputStream input, OutputStream output, ForkJoinPool pool, 
+			EncodeSettings settings, BlockIndex appendTo) throws IOException {
+		int mode = settings.mode;
+		CompressionStats stats = new CompressionStats();
+		long start = System.nanoTime();
+		
+		//Count the bytes on both sides for the statistics.
+		CountingInputStream countedInput = new CountingInputStream(input);
+		CountingOutputStream countedOutput = new CountingOutputStream(output);
+		
+		//Use UTF-8 in the InputStreamReader to read characters that are valued greater than one byte.
+		Reader reader = mode == MODE_CHARS ? new InputStreamReader(countedInput, "UTF-8") : null;
+		char[] charBlock = mode == MODE_CHARS ? new char[BLOCK_SIZE] : null;
+		byte[] byteBlock = mode == MODE_BYTES ? new byte[BLOCK_SIZE] : null;
+		
+		BufferedOutputStream bufferedOutput = new BufferedOutputStream(countedOutput, BitWriter.BUFFER_SIZE);
+		BlockWriter writer = appendTo == null 
+				? new BlockWriter(bufferedOutput, mode) 
+				: new BlockWriter(bufferedOutput, appendTo);
+		
+		//The blocks that are being encoded, in the order they were read in, and the statistics of each of them.
+		ArrayDeque<ForkJoinTask<byte[]>> tasks = new ArrayDeque<>();
+		ArrayDeque<CompressionStats> taskStats = new ArrayDeque<>();
+		int maxTasks = pool.getParallelism() * 2;
+		
+		while (true) {
+			long time = System.nanoTime();
+			String str = mode == MODE_BYTES ? readBlock(countedInput, byteBlock) : readBlock(reader, charBlock);
+			stats.addPhase(CompressionStats.PHASE_READ, time);
+			
+			if (str != null) {
+				CompressionStats blockStats = new CompressionStats();
+				
+				tasks.add(pool.submit(() -> COMPRESSORS.get().encodeBlock(str, settings, blockStats)));
+				taskStats.add(blockStats);
+			}
+			
+			/*
+			 * Write the oldest block once enough blocks are being encoded to keep every thread busy, or once there is 
+			 * nothing left to read.
+			 */
+			while (tasks.size() >= maxTasks || (str == null && !tasks.isEmpty())) {
+				byte[] encoded = tasks.remove().join();
+				CompressionStats blockStats = taskStats.remove();
+				int rawLength = (int)blockStats.rawChars;
+				
+				time = System.nanoTime();
+				writer.writeBlock(encoded, rawLength);
+				stats.addPhase(CompressionStats.PHASE_WRITE, time);
+				stats.add(blockStats);
+			}
+			
+			if (str == null) {
+				break;
+			}
+		}
+		
+		long time = System.nanoTime();
+		writer.finish();
+		stats.addPhase(CompressionStats.PHASE_WRITE, time);
+		
+		stats.bytesIn = countedInput.count;
+		stats.bytesOut = countedOutput.count;
+		stats.totalNanos = System.nanoTime() - start;
+		
+		return stats;
+	}
+
+	/**
+	 * Compresses and encodes a UTF-8 text file. The compressed file is written through memory-mapped parts of the 
+	 * file, so each encoded block is copied straight into the file.
+	 * @param input The UTF-8 text file to be compressed.
+	 * @param output The compressed file.
+	 * @return The statistics of compressing the text.
+	 * @throws IOException If the text could not be read or the compressed file could not be written.
+	 */
+	public static CompressionStats encode(File input, File output) throws IOException {
+		return encode(input, output, new EncodeSettings());
+	}
+	
+	/**
+	 * Compresses and encodes a file. The compressed file is written through memory-mapped parts of the file, so each 
+	 * encoded block is copied straight into the file.
+	 * @param input The file to be compressed.
+	 * @param output The compressed file.
+	 * @param settings The settings the file is compressed with.
+	 * @return The statistics of compressing the file.
+	 * @throws IOException If the file could not be read or the compressed file could not be written.
+	 */
+	public static CompressionStats encode(File input, File output, EncodeSettings settings) throws IOException {
+		FileInputStream fis = new FileInputStream(input);
+		MappedOutputStream huffmanOut = new MappedOutputStream(output);
+		
+		try {
+			return encode(fis, huffmanOut, ForkJoinPool.commonPool(), settings);
+		}
+		finally {
+			fis.close();
+			huffmanOut.close();
+		}
+	}
+
+	/**
+	 * Compresses a UTF-8 text file and adds it to the end of a compressed file, as if the two texts had been 
+	 * compressed together. Only the new text is compressed.
+	 * @param input The UTF-8 text file to be added.
+	 * @param output The compressed file, which must have been compressed in chars mode.
+	 * @return The statistics of compressing the new text.
+	 * @throws IOException If the text could not be read or the compressed file could not be read or written.
+	 */
+	public static CompressionStats append(File input, File output) throws IOException {
+		return append(input, output, new EncodeSettings());
+	}
+	
+	/**
+	 * Compresses a file and adds it to the end of a compressed file as new blocks. The blocks of the compressed file 
+	 * are copied as they are to a new file next to it, and the new blocks are written after them, followed by the end
+	 * marker, the checksum of the whole file and the index again with the new blocks added. Only the new text is 
+	 * compressed. The new file then replaces the compressed file in one atomic rename, so if adding to the file fails
+	 * part of the way through, the compressed file still holds its old blocks and index. Decoders read the result the 
+	 * same as a file compressed in one go.
+	 * @param input The file to be added.
+	 * @param output The compressed file.
+	 * @param settings The settings the new blocks are compressed with, whose mode must be the mode of the file.
+	 * @return The statistics of compressing the new blocks.
+	 * @throws IOException If the file could not be read, the compressed file could not be read or written, or the 
+	 * compressed file is in a different mode.
+	 */
+	public static CompressionStats append(File input, File output, EncodeSettings settings) throws IOException {
+		RandomAccessFile compressed = new RandomAccessFile(output, "r");
+		BlockIndex index;
+		
+		try {
+			index = BlockIndex.read(compressed);
+		}
+		finally {
+			compressed.close();
+		}
+		
+		if (index.mode != settings.mode) {
+			throw new IOException("The compressed file was compressed in a different mode");
+		}
+		
+		//The new file is made in the same directory, so that renaming it over the compressed file is atomic.
+		File copy = File.createTempFile(output.getName(), ".tmp", output.getAbsoluteFile().getParentFile());
+		
+		try {
+			copy(output, copy, index.blocksEnd);
+			
+			FileInputStream fis = new FileInputStream(input);
+			MappedOutputStream huffmanOut = new MappedOutputStream(copy, index.blocksEnd);
+			CompressionStats stats;
+			
+			try {
+				stats = encode(fis, huffmanOut, ForkJoinPool.commonPool(), settings, index);
+				huffmanOut.force();
+			}
+			finally {
+				fis.close();
+				huffmanOut.close();
+			}
+			
+			Files.move(copy.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+					StandardCopyOption.ATOMIC_MOVE);
+			
+			return stats;
+		}
+		finally {
+			
+			//Once the new file has replaced the compressed file there is nothing left to delete.
+			copy.delete();
+		}
+	}
+	
+	/**
+	 * Copies the start of a file to another file, within the operating system where it can.
+	 * @param from The file to copy from.
+	 * @param to The file to copy to, which is emptied first.
+	 * @param length The number of bytes to copy.
+	 * @throws IOException If the file could not be read or written.
+	 */
+	private static void copy(File from, File to, long length) throws IOException {
+		FileChannel in = new FileInputStream(from).getChannel();
+		FileChannel out = new FileOutputStream(to).getChannel();
+		
+		try {
+			long position = 0;
+			
+			while (position < length) {
+				position += in.transferTo(position, length - position, out);
+			}
+		}
+		finally {
+			in.close();
+			out.close();
+		}
+	}
+
+	/*
+	 * Encodes and compresses the text file, and writes the compressed blocks to huffman.ser.
+	 */
+	public static void main(String[] args) {
+		try {
+			System.out.println("Compressing the text file...");
+			
+			CompressionStats stats = encode(new File("warandpeace.txt"), new File("huffman.ser"));
+			
+			System.out.println("Done! Compressed " + stats.blocks + " blocks, check huffman.ser");
+			System.out.println(stats.toJson());
+		}
+		catch (IOException i) {
+			i.printStackTrace();
+		}
+	}
+}
\ No newline at end of file
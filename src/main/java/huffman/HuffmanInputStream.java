@@ -0,0 +1,169 @@
+package huffman;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to read the decompressed contents of a compressed file from a stream. Blocks are 
+ * decoded one at a time as they are needed, so only one block is held in memory no matter how long the file is. A 
+ * file compressed in chars mode is read as UTF-8 text, and a file compressed in bytes mode as its raw bytes.
+ */
+public class HuffmanInputStream extends InputStream {
+	private DataInputStream in;
+	private HuffmanDecompressor decompressor;
+	private int mode;
+
+	//The statistics of this stream, which are added to the statistics of the decompressor when it is closed.
+	private CompressionStats stats = new CompressionStats();
+	private long start = System.nanoTime();
+	private CountingInputStream countedInput;
+
+	/*
+	 * The decompressed bytes of the current block, which are read straight out of the array of decoded so that no
+	 * array is made for each block, the number of them, the next one to be read, and whether the end marker has been
+	 * read.
+	 */
+	private DecodedBytes decoded = new DecodedBytes();
+	private Writer decodedWriter = new OutputStreamWriter(decoded, StandardCharsets.UTF_8);
+	private byte[] buffer = new byte[0];
+	private int limit;
+	private int position;
+	private boolean ended;
+	private boolean closed;
+
+	/**
+	 * Constructs a HuffmanInputStream object with its own decompressor.
+	 * @param in The stream the compressed file is read from.
+	 * @throws IOException If the stream does not hold a compressed file.
+	 */
+	public HuffmanInputStream(InputStream in) throws IOException {
+		this(in, new HuffmanDecompressor());
+	}
+
+	/**
+	 * Constructs a HuffmanInputStream object that decompresses with a decompressor, whose arrays are reused. The 
+	 * decompressor must not be used for anything else until the stream is closed.
+	 * @param in The stream the compressed file is read from.
+	 * @param decompressor The decompressor used to decompress each block.
+	 * @throws IOException If the stream does not hold a compressed file.
+	 */
+	public HuffmanInputStream(InputStream in, HuffmanDecompressor decompressor) throws IOException {
+		this.decompressor = decompressor;
+
+		countedInput = new CountingInputStream(in);
+		this.in = new DataInputStream(new BufferedInputStream(countedInput, BitWriter.BUFFER_SIZE));
+
+		if (this.in.readInt() != HuffmanEncode.MAGIC) {
+			throw new IOException("Not a Huffman compressed file");
+		}
+
+		mode = this.in.readUnsignedByte();
+		decompressor.startFile();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+
+		return buffer[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+
+		if (!fill()) {
+			return -1;
+		}
+
+		int copied = Math.min(len, limit - position);
+		System.arraycopy(buffer, position, b, off, copied);
+		position += copied;
+
+		return copied;
+	}
+
+	@Override
+	public int available() throws IOException {
+		ensureOpen();
+		return limit - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		stats.bytesIn = countedInput.count;
+		stats.totalNanos = System.nanoTime() - start;
+		decompressor.stats.add(stats);
+
+		in.close();
+	}
+
+	/**
+	 * Decodes blocks until there are bytes left to read or the end of the file.
+	 * @return Whether there are bytes left to read.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	private boolean fill() throws IOException {
+		ensureOpen();
+
+		while (position == limit && !ended) {
+			int rawLength = in.readInt();
+
+			//A block with no chars marks the end of the blocks, and is followed by the checksum of the file.
+			if (rawLength == 0) {
+				decompressor.checkFile(in.readInt());
+				ended = true;
+				break;
+			}
+
+			int length = decompressor.decodeBlock(in, rawLength, stats);
+
+			long time = System.nanoTime();
+			decoded.reset();
+			decompressor.writeText(length, mode, decodedWriter, decoded);
+			decodedWriter.flush();
+
+			buffer = decoded.array();
+			limit = decoded.size();
+			position = 0;
+			stats.bytesOut += limit;
+			stats.addPhase(CompressionStats.PHASE_WRITE, time);
+		}
+
+		return position < limit;
+	}
+
+	/**
+	 * @throws IOException If the stream has been closed.
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+
+	/*
+	 * A ByteArrayOutputStream that gives out its array instead of a copy of it. The array is only made again when a
+	 * block is longer than every block before it, and reset() keeps it for the next block.
+	 */
+	private static class DecodedBytes extends ByteArrayOutputStream {
+
+		/**
+		 * @return The array holding the bytes written since the last reset, which is only valid until the next write.
+		 */
+		byte[] array() {
+			return buf;
+		}
+	}
+}
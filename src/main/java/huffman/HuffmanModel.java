@@ -0,0 +1,359 @@
+package huffman;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to hold a substitution dictionary and a Huffman code trained on a sample of text. A
+ * block encoded with a model stores neither a code table nor the information for decoding its substitutions, only the
+ * ID of the model, so small payloads that look like the sample are not outweighed by their own headers, and skip
+ * building a tree and searching for substrings altogether. A model never changes once it is made, so one model can be
+ * used by any number of threads at the same time.
+ */
+public class HuffmanModel {
+
+	//The number at the start of every model file, "HUFM" in ASCII, and the version of the model file format.
+	public static final int MODEL_MAGIC = 0x4855464D;
+	public static final int VERSION = 1;
+
+	/*
+	 * The first of the chars that replace substrings in a model, which are in the private use area of Unicode. A
+	 * payload in bytes mode never holds them and a text payload almost never does, so the replacement chars do not
+	 * take away any char that a payload might need a code for.
+	 */
+	public static final char REPLACEMENT_BASE = 0xE000;
+
+	//The extension of model files, which are named by their ID in hexadecimal.
+	public static final String EXTENSION = ".model";
+
+	/*
+	 * The longest code a model may have. This is as many bits as a decoding table covers, so every char of a block
+	 * encoded with a model is decoded with a single lookup.
+	 */
+	public static final int MAX_CODE_LENGTH = DecodeTable.MAX_TABLE_BITS;
+
+	/*
+	 * The ID of the model, which is a checksum of its dictionary and code, so a block can never be decoded with a
+	 * different model than the one it was encoded with.
+	 */
+	public final int id;
+
+	//The information for decoding the substitutions, in the same layout that Optimization puts in front of a string.
+	public final char[] dictionary;
+
+	//The canonical code of the model and its longest code length.
+	public final CanonicalCode code;
+	public final int maxLength;
+
+	//The binary value and number of bits of each char, indexed by the char, with a length of 0 for chars with no code.
+	final int[] codes = new int[Character.MAX_VALUE + 1];
+	final int[] lengths = new int[Character.MAX_VALUE + 1];
+
+	//Which chars replace substrings, and so cannot be encoded with the model when they occur in a text.
+	final boolean[] replacementChars = new boolean[Character.MAX_VALUE + 1];
+
+	//The substrings of each length, from longest to shortest, in the order Optimization replaces them.
+	final SubstitutionTrie[] tries = new SubstitutionTrie[Optimization.MAX_SUBSTR_LEN - Optimization.MIN_SUBSTR_LEN + 1];
+
+	//The table used to decode blocks and the substring each replacement char stands for, which are only built once.
+	final DecodeTable table;
+	final char[][] expansions;
+
+	/**
+	 * Constructs a HuffmanModel object and builds the tables used to encode and decode with it.
+	 * @param dictionary The information for decoding the substitutions.
+	 * @param code The canonical code of the model.
+	 * @param maxLength The longest code length of the code.
+	 */
+	public HuffmanModel(char[] dictionary, CanonicalCode code, int maxLength) {
+		this.dictionary = dictionary;
+		this.code = code;
+		this.maxLength = maxLength;
+
+		code.fillTables(codes, lengths);
+
+		int i = 0;
+
+		for (int substrLen = Optimization.MAX_SUBSTR_LEN; substrLen >= Optimization.MIN_SUBSTR_LEN; substrLen--) {
+			SubstitutionTrie trie = new SubstitutionTrie();
+			int numSubstrings = dictionary[i++];
+
+			for (int n = 0; n < numSubstrings; n++) {
+				char replacementChar = dictionary[i++];
+
+				replacementChars[replacementChar] = true;
+				trie.add(dictionary, i, substrLen, replacementChar);
+				i += substrLen;
+			}
+
+			tries[Optimization.MAX_SUBSTR_LEN - substrLen] = trie;
+		}
+
+		table = new DecodeTable(code, maxLength);
+		expansions = Optimization.expansions(dictionary, Character.MAX_VALUE + 1);
+
+		CRC32 crc = new CRC32();
+
+		for (char c : dictionary) {
+			crc.update(c >>> 8);
+			crc.update(c);
+		}
+
+		for (int j = 0; j < code.symbols.length; j++) {
+			crc.update(code.symbols[j] >>> 8);
+			crc.update(code.symbols[j]);
+			crc.update(code.lengths[j]);
+		}
+
+		id = (int)crc.getValue();
+	}
+
+	/**
+	 * Trains a model on a sample of text. The substrings are chosen the same way Optimization chooses them for a
+	 * block, then their replacement chars are moved up to REPLACEMENT_BASE, and the code is built from the chars left
+	 * after substitution. Every one-byte char is given a code even if it is not in the sample, so that any payload in
+	 * bytes mode can be encoded with the model.
+	 * @param sample The text to train on. Only the first BLOCK_SIZE chars are used.
+	 * @return The trained model.
+	 */
+	public static HuffmanModel train(String sample) {
+		if (sample.length() > HuffmanEncode.BLOCK_SIZE) {
+			sample = sample.substring(0, HuffmanEncode.BLOCK_SIZE);
+		}
+
+		char[] chars = Optimization.compress(sample).toCharArray();
+		int infoLength = Optimization.decodeInfoLength(chars);
+		int replacementCount = moveReplacementChars(chars, infoLength);
+		char[] dictionary = Arrays.copyOf(chars, infoLength);
+
+		int[] freqs = new int[Character.MAX_VALUE + 1];
+
+		for (int i = infoLength; i < chars.length; i++) {
+			freqs[chars[i]]++;
+		}
+
+		/*
+		 * Any one-byte char might occur in a payload, and a replacement char can be left in another text where it was
+		 * always replaced again by a shorter substring in the sample, so they all need a code.
+		 */
+		for (int c = 0; c < 256; c++) {
+			freqs[c]++;
+		}
+
+		for (int c = REPLACEMENT_BASE; c < REPLACEMENT_BASE + replacementCount; c++) {
+			freqs[c]++;
+		}
+
+		char[] symbols = new char[Character.MAX_VALUE + 1];
+		int symbolCount = 0;
+
+		for (int c = 0; c < freqs.length; c++) {
+			if (freqs[c] > 0) {
+				symbols[symbolCount++] = (char)c;
+			}
+		}
+
+		int[] codes = new int[Character.MAX_VALUE + 1];
+		int[] lengths = new int[Character.MAX_VALUE + 1];
+		HuffmanEncode.charsToBinary(HuffmanEncode.makeTree(freqs, symbols, symbolCount), 0, 0, codes, lengths);
+
+		int maxLength = 0;
+
+		for (int j = 0; j < symbolCount; j++) {
+			maxLength = Math.max(maxLength, lengths[symbols[j]]);
+		}
+
+		//Keep every code short enough to be decoded with a single lookup.
+		if (maxLength > MAX_CODE_LENGTH) {
+			maxLength = Math.max(MAX_CODE_LENGTH, 32 - Integer.numberOfLeadingZeros(symbolCount - 1));
+
+			Arrays.fill(lengths, 0);
+			HuffmanEncode.packageMerge(freqs, maxLength, lengths);
+		}
+
+		return new HuffmanModel(dictionary, CanonicalCode.fromLengths(lengths, symbols, symbolCount), maxLength);
+	}
+
+	/**
+	 * Gives the replacement chars of a string compressed by Optimization the chars from REPLACEMENT_BASE up instead,
+	 * in the order they appear in the information for decoding. The one-byte chars Optimization picks are the ones
+	 * missing from the sample, which are often digits or letters that other payloads hold.
+	 * @param chars The chars of the compressed string, which are changed in place.
+	 * @param infoLength The number of chars of the information for decoding.
+	 * @return The number of replacement chars.
+	 */
+	private static int moveReplacementChars(char[] chars, int infoLength) {
+
+		//The char each one-byte replacement char is moved to, or 0 for chars that replace nothing.
+		char[] moved = new char[256];
+		int count = 0;
+		int i = 0;
+
+		/*
+		 * A substring only holds chars that replace longer substrings, and a replacement char is never used in the
+		 * string for anything else, so every one-byte char that has been given a new char is changed wherever it is.
+		 */
+		for (int substrLen = Optimization.MAX_SUBSTR_LEN; substrLen >= Optimization.MIN_SUBSTR_LEN; substrLen--) {
+			int numSubstrings = chars[i++];
+
+			for (int n = 0; n < numSubstrings; n++) {
+				moved[chars[i]] = (char)(REPLACEMENT_BASE + count++);
+				chars[i] = moved[chars[i]];
+				i++;
+
+				for (int j = i; j < i + substrLen; j++) {
+					if (chars[j] < 256 && moved[chars[j]] != 0) {
+						chars[j] = moved[chars[j]];
+					}
+				}
+
+				i += substrLen;
+			}
+		}
+
+		for (int j = infoLength; j < chars.length; j++) {
+			if (chars[j] < 256 && moved[chars[j]] != 0) {
+				chars[j] = moved[chars[j]];
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Checks whether a text can be encoded with the model, which is when every char in it has a code and no char in
+	 * it replaces a substring.
+	 * @param str The text to check.
+	 * @return Whether the text can be encoded with the model.
+	 */
+	public boolean canEncode(String str) {
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+
+			if (lengths[c] == 0 || replacementChars[c]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Writes the model file: the model magic number, the version, the ID, the dictionary, the longest code length and
+	 * the (char, code length) table of the code.
+	 * @param output The stream the model is written to, which is not closed.
+	 * @throws IOException If the model could not be written.
+	 */
+	public void write(OutputStream output) throws IOException {
+		DataOutputStream out = new DataOutputStream(output);
+
+		out.writeInt(MODEL_MAGIC);
+		out.writeByte(VERSION);
+		out.writeInt(id);
+		out.writeInt(dictionary.length);
+
+		for (char c : dictionary) {
+			out.writeChar(c);
+		}
+
+		out.writeByte(maxLength);
+		code.write(out);
+		out.flush();
+	}
+
+	/**
+	 * Reads a model file written by the write method.
+	 * @param input The stream the model is read from, which is not closed.
+	 * @return The model.
+	 * @throws IOException If the model could not be read, or it is not a model file of this version, or its ID does not
+	 * match its contents.
+	 */
+	public static HuffmanModel read(InputStream input) throws IOException {
+		DataInputStream in = new DataInputStream(input);
+
+		if (in.readInt() != MODEL_MAGIC) {
+			throw new IOException("Not a Huffman model file");
+		}
+
+		int version = in.readUnsignedByte();
+
+		if (version != VERSION) {
+			throw new IOException("Unsupported Huffman model version " + version);
+		}
+
+		int id = in.readInt();
+		char[] dictionary = new char[in.readInt()];
+
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = in.readChar();
+		}
+
+		int maxLength = in.readUnsignedByte();
+		HuffmanModel model = new HuffmanModel(dictionary, CanonicalCode.read(in), maxLength);
+
+		if (model.id != id) {
+			throw new IOException("Huffman model " + fileName(id) + " does not match its ID");
+		}
+
+		return model;
+	}
+
+	/**
+	 * Writes the model file to a directory, named by its ID, which is where ModelCache looks for it.
+	 * @param directory The directory the model file is written to, which is made if it does not exist.
+	 * @return The model file.
+	 * @throws IOException If the model file could not be written.
+	 */
+	public Path save(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Path file = directory.resolve(fileName(id));
+
+		OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+
+		try {
+			write(out);
+		}
+		finally {
+			out.close();
+		}
+
+		return file;
+	}
+
+	/**
+	 * @param id The ID of a model.
+	 * @return The name of the model file with the ID.
+	 */
+	public static String fileName(int id) {
+		return String.format("%08x", id) + EXTENSION;
+	}
+
+	/*
+	 * Trains a model on a sample file and saves it to a directory. The arguments are the sample file, read as UTF-8
+	 * text (or as raw bytes if the third argument is "bytes"), and the directory.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.out.println("Usage: HuffmanModel <sample file> <model directory> [chars|bytes]");
+			return;
+		}
+
+		try {
+			byte[] sample = Files.readAllBytes(Paths.get(args[0]));
+			boolean bytes = args.length > 2 && args[2].equals("bytes");
+
+			HuffmanModel model = train(new String(sample, bytes ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8));
+			Path file = model.save(Paths.get(args[1]));
+
+			System.out.printf("Trained model %08x with %d codes, written to %s%n", model.id, model.code.symbols.length,
+					file);
+		}
+		catch (IOException i) {
+			i.printStackTrace();
+		}
+	}
+}
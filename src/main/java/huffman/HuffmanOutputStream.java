@@ -0,0 +1,147 @@
+package huffman;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress everything written to it in bytes mode and write the compressed file to 
+ * another stream. The bytes are collected into blocks of BLOCK_SIZE bytes, and each full block is compressed as soon 
+ * as it is complete. Closing the stream compresses the last block and writes the end of the compressed file, which can
+ * then be read with a HuffmanInputStream or decompressed by HuffmanDecode.
+ */
+public class HuffmanOutputStream extends OutputStream {
+	private OutputStream out;
+	private BufferedOutputStream bufferedOut;
+	private HuffmanCompressor compressor;
+	private BlockWriter writer;
+
+	//The statistics of this stream, which are added to the statistics of the compressor when it is closed.
+	private CompressionStats stats = new CompressionStats();
+	private long start = System.nanoTime();
+	private CountingOutputStream countedOutput;
+
+	//The bytes of the block that is being collected, and how many of them there are.
+	private byte[] buffer;
+	private int count;
+	private boolean closed;
+
+	/**
+	 * Constructs a HuffmanOutputStream object with its own compressor.
+	 * @param out The stream the compressed file is written to.
+	 * @throws IOException If the start of the compressed file could not be written.
+	 */
+	public HuffmanOutputStream(OutputStream out) throws IOException {
+		this(out, new HuffmanCompressor());
+	}
+
+	/**
+	 * Constructs a HuffmanOutputStream object that compresses with a compressor, whose arrays are reused. The 
+	 * compressor must not be used for anything else until the stream is closed.
+	 * @param out The stream the compressed file is written to.
+	 * @param compressor The compressor used to compress each block.
+	 * @throws IOException If the start of the compressed file could not be written.
+	 */
+	public HuffmanOutputStream(OutputStream out, HuffmanCompressor compressor) throws IOException {
+		this.out = out;
+		this.compressor = compressor;
+
+		countedOutput = new CountingOutputStream(out);
+		bufferedOut = new BufferedOutputStream(countedOutput, BitWriter.BUFFER_SIZE);
+		writer = new BlockWriter(bufferedOut, HuffmanEncode.MODE_BYTES);
+		buffer = compressor.byteBlock();
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		buffer[count++] = (byte)b;
+
+		if (count == buffer.length) {
+			writeBlock();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+
+		while (len > 0) {
+			int copied = Math.min(len, buffer.length - count);
+			System.arraycopy(b, off, buffer, count, copied);
+
+			count += copied;
+			off += copied;
+			len -= copied;
+
+			if (count == buffer.length) {
+				writeBlock();
+			}
+		}
+	}
+
+	/**
+	 * Writes out the blocks that have already been compressed. The block that is being collected is not compressed 
+	 * until it is full or the stream is closed, since every block has to be compressed on its own.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		bufferedOut.flush();
+	}
+
+	/**
+	 * Compresses the last block, writes the end of the compressed file, and closes the stream it was written to.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		try {
+			if (count > 0) {
+				writeBlock();
+			}
+
+			long time = System.nanoTime();
+			writer.finish();
+			stats.addPhase(CompressionStats.PHASE_WRITE, time);
+
+			stats.bytesOut = countedOutput.count;
+			stats.totalNanos = System.nanoTime() - start;
+			compressor.stats.add(stats);
+		}
+		finally {
+			closed = true;
+			out.close();
+		}
+	}
+
+	/**
+	 * Compresses the block that has been collected and writes it.
+	 * @throws IOException If the block could not be written.
+	 */
+	private void writeBlock() throws IOException {
+
+		//ISO-8859-1 maps every byte to the char with the same value, so this is a plain copy with no decoding.
+		String str = new String(buffer, 0, count, StandardCharsets.ISO_8859_1);
+		byte[] encoded = compressor.encodeBlock(str, compressor.settings(), stats);
+
+		long time = System.nanoTime();
+		writer.writeBlock(encoded, count);
+		stats.addPhase(CompressionStats.PHASE_WRITE, time);
+
+		stats.bytesIn += count;
+		count = 0;
+	}
+
+	/**
+	 * @throws IOException If the stream has been closed.
+	 */
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package huffman;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to write a compressed file through memory-mapped parts of the file. The file is
+ * mapped WINDOW_SIZE bytes at a time, and writes copy their bytes straight into the mapped window until it is full, so
+ * a whole encoded block is written with one copy and no system call. A window is only mapped once the last one is full,
+ * so even a file of many GB is written through a few mappings. A file can also be written from the middle, to add to
+ * the end of a copy of a compressed file.
+ */
+public class MappedOutputStream extends OutputStream {
+
+	//The number of bytes of the file mapped at a time.
+	public static final int WINDOW_SIZE = 1 << 26;
+
+	private FileChannel channel;
+
+	//The part of the file mapped last, which the next bytes are copied into until it is full.
+	private MappedByteBuffer window;
+
+	//The offset in the file that the next byte is written to.
+	private long position;
+
+	/**
+	 * Constructs a MappedOutputStream object that writes to the start of a file, which is emptied first.
+	 * @param file The file to write to.
+	 * @throws IOException If the file could not be opened.
+	 */
+	public MappedOutputStream(File file) throws IOException {
+		RandomAccessFile output = new RandomAccessFile(file, "rw");
+		output.setLength(0);
+		channel = output.getChannel();
+	}
+
+	/**
+	 * Constructs a MappedOutputStream object that writes to a file from an offset, keeping what comes before it.
+	 * @param file The file to write to.
+	 * @param position The offset in the file that the first byte is written to.
+	 * @throws IOException If the file could not be opened.
+	 */
+	public MappedOutputStream(File file, long position) throws IOException {
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		this.position = position;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (window == null || !window.hasRemaining()) {
+			nextWindow();
+		}
+
+		window.put((byte)b);
+		position++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (window == null || !window.hasRemaining()) {
+				nextWindow();
+			}
+
+			int n = Math.min(len, window.remaining());
+			window.put(b, off, n);
+			position += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Maps the WINDOW_SIZE bytes of the file starting at the offset the next byte is written to. Mapping past the end
+	 * of the file makes the file grow to fit the window, and the part that is never written is cut off on close.
+	 * @throws IOException If the file could not be mapped.
+	 */
+	private void nextWindow() throws IOException {
+		window = channel.map(FileChannel.MapMode.READ_WRITE, position, WINDOW_SIZE);
+	}
+
+	/**
+	 * Writes every byte written so far through to the storage device, so that none of them is lost if the system 
+	 * goes down before the file is used.
+	 * @throws IOException If the file could not be written.
+	 */
+	public void force() throws IOException {
+		if (window != null) {
+			window.force();
+		}
+
+		channel.force(true);
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+
+		//Anything the file held past the last byte written is left over from before, so it is cut off.
+		if (channel.size() > position) {
+			channel.truncate(position);
+		}
+
+		channel.close();
+	}
+}
@@ -0,0 +1,305 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to compress a block with LZ77 instead of substituting substrings. The text is read
+ * once from start to end, and every run of chars that already occurred within the last WINDOW_SIZE chars is replaced
+ * with a match: its length and its distance back to where it occurred before. Earlier positions are found through
+ * hash chains, where each position links to the last position before it whose next three chars hash the same, so
+ * only positions that can start a match are looked at. The chars that are not part of a match are left as literals,
+ * and each match is marked in the literals by an escape char that does not occur in the text. The arrays are made
+ * once and reused by every block.
+ */
+public class MatchFinder {
+
+	//The shortest and the longest match.
+	public static final int MIN_MATCH = 3;
+	public static final int MAX_MATCH = 258;
+
+	//How far back a match can start, which must be a power of two.
+	public static final int WINDOW_SIZE = 1 << 16;
+
+	//A match of MIN_MATCH chars further back than TOO_FAR takes more bits than the chars themselves.
+	public static final int TOO_FAR = 4096;
+
+	/*
+	 * How hard each compression level looks for matches, indexed by the level, from 1 to HuffmanEncode.LEVEL_MAX. CHAIN
+	 * is the most positions looked at for each match. A match is only checked for a longer one starting at the next
+	 * char if it is shorter than LAZY, and the next char is only given a quarter of the chain if the match is already
+	 * GOOD chars long. A match of NICE chars is good enough to stop looking for a longer one. Level 0 finds no matches.
+	 */
+	public static final int[] CHAIN = {0, 4, 8, 16, 32, 64};
+	public static final int[] LAZY = {0, 0, 4, 16, 32, 64};
+	public static final int[] GOOD = {0, 4, 4, 8, 8, 16};
+	public static final int[] NICE = {0, 16, 16, 32, 128, MAX_MATCH};
+
+	/*
+	 * The number of slots the lengths and distances of matches are coded with. A length is coded as the slot of its
+	 * length minus MIN_MATCH, and a distance as the slot of the distance minus one.
+	 */
+	public static final int LENGTH_SLOTS = slot(MAX_MATCH - MIN_MATCH) + 1;
+	public static final int DISTANCE_SLOTS = slot(WINDOW_SIZE - 1) + 1;
+
+	//The number of bits of each hash. A table with more hashes than the window has positions keeps most chains short.
+	private static final int HASH_BITS = 16;
+
+	/*
+	 * The last position with each hash, and the position before each position with the same hash, indexed by the
+	 * position within the window. Positions are only followed while they are within the window, so entries left over
+	 * from positions that have left the window are never read.
+	 */
+	private int[] head = new int[1 << HASH_BITS];
+	private int[] prev = new int[WINDOW_SIZE];
+
+	//The settings of the level the text being parsed is parsed at.
+	private int maxChain;
+	private int maxLazy;
+	private int goodMatch;
+	private int niceMatch;
+
+	//The length and distance of the match found by the last call to longestMatch.
+	private int matchLength;
+	private int matchDistance;
+
+	//Marks the chars that occur in the text, one bit for each char, so that the escape char can be found.
+	private long[] used = new long[(Character.MAX_VALUE + 1) / 64];
+
+	/*
+	 * The literals of the last text that was parsed, with the escape char in place of each match, and the length and
+	 * distance of each match in order.
+	 */
+	public char[] literals = new char[0];
+	public int literalCount;
+	public int[] lengths = new int[0];
+	public int[] distances = new int[0];
+	public int matchCount;
+	public char escape;
+
+	/**
+	 * Finds the slot a value is coded with. The values below 4 each have their own slot, and every power of two after
+	 * that is split into two slots, so a value is coded as its slot and the extraBits(slot) bits below the two highest
+	 * bits of the value.
+	 * @param value The value, which must not be negative.
+	 * @return The slot of the value.
+	 */
+	public static int slot(int value) {
+		if (value < 4) {
+			return value;
+		}
+
+		int log = 31 - Integer.numberOfLeadingZeros(value);
+
+		return 2 * log + ((value >>> (log - 1)) & 1);
+	}
+
+	/**
+	 * @param slot A slot.
+	 * @return The number of bits written after the slot.
+	 */
+	public static int extraBits(int slot) {
+		return slot < 4 ? 0 : (slot >>> 1) - 1;
+	}
+
+	/**
+	 * @param slot A slot.
+	 * @return The smallest value coded with the slot, which the extra bits are added to.
+	 */
+	public static int slotBase(int slot) {
+		return slot < 4 ? slot : (2 | (slot & 1)) << ((slot >>> 1) - 1);
+	}
+
+	/**
+	 * Splits a text into literals and matches at the highest level.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @return False if every char occurs in the text, which leaves no char to mark the matches with.
+	 */
+	public boolean parse(char[] text, int length) {
+		return parse(text, length, HuffmanEncode.LEVEL_MAX);
+	}
+
+	/**
+	 * Splits a text into literals and matches. A match shorter than LAZY is only taken once the match starting at the
+	 * next char is no longer, so a short match does not hide a longer one that starts right after it.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @param level The level to parse at, from 1 to HuffmanEncode.LEVEL_MAX. Lower levels parse faster but find 
+	 * shorter matches.
+	 * @return False if every char occurs in the text, which leaves no char to mark the matches with.
+	 */
+	public boolean parse(char[] text, int length, int level) {
+		maxChain = CHAIN[level];
+		maxLazy = LAZY[level];
+		goodMatch = GOOD[level];
+		niceMatch = NICE[level];
+
+		if (!findEscape(text, length)) {
+			return false;
+		}
+
+		if (literals.length < length) {
+			literals = new char[length];
+		}
+
+		//A match is at least MIN_MATCH chars, so there can be no more matches than that.
+		if (lengths.length < length / MIN_MATCH) {
+			lengths = new int[length / MIN_MATCH];
+			distances = new int[length / MIN_MATCH];
+		}
+
+		Arrays.fill(head, -1);
+		literalCount = 0;
+		matchCount = 0;
+
+		int i = 0;
+		boolean found = false;
+
+		while (i < length) {
+
+			//The match at this position is already known if it was looked for before the char before it was taken.
+			if (!found) {
+				longestMatch(text, length, i, MIN_MATCH - 1, maxChain);
+			}
+
+			insert(text, length, i);
+			found = false;
+
+			if (matchLength < MIN_MATCH) {
+				literals[literalCount++] = text[i++];
+				continue;
+			}
+
+			int length1 = matchLength;
+			int distance1 = matchDistance;
+
+			/*
+			 * Only a longer match than this one is looked for at the next char, which is found far sooner than the
+			 * longest match, and with a shorter chain if this match is already good.
+			 */
+			if (length1 < maxLazy) {
+				longestMatch(text, length, i + 1, length1, length1 >= goodMatch ? maxChain >> 2 : maxChain);
+
+				//Take the char as a literal if a longer match starts right after it.
+				if (matchLength > 0) {
+					literals[literalCount++] = text[i++];
+					found = true;
+					continue;
+				}
+			}
+
+			literals[literalCount++] = escape;
+			lengths[matchCount] = length1;
+			distances[matchCount++] = distance1;
+
+			//Every position within the match can start a later match.
+			for (int j = i + 1; j < i + length1; j++) {
+				insert(text, length, j);
+			}
+
+			i += length1;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the lowest char that does not occur in a text and keeps it as the escape char.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @return False if every char occurs in the text.
+	 */
+	private boolean findEscape(char[] text, int length) {
+		Arrays.fill(used, 0);
+
+		for (int i = 0; i < length; i++) {
+			used[text[i] >>> 6] |= 1L << text[i];
+		}
+
+		for (int i = 0; i < used.length; i++) {
+			if (used[i] != -1) {
+				escape = (char)(i * 64 + Long.numberOfTrailingZeros(~used[i]));
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @param text The array holding the text.
+	 * @param position A position with at least MIN_MATCH chars from it to the end of the text.
+	 * @return The hash of the MIN_MATCH chars starting at the position.
+	 */
+	private static int hash(char[] text, int position) {
+		int h = text[position] * 0x9E3779B1 ^ text[position + 1] * 0x85EBCA77 ^ text[position + 2] * 0xC2B2AE3D;
+
+		return h >>> (32 - HASH_BITS);
+	}
+
+	/**
+	 * Adds a position to the front of the hash chain of its next MIN_MATCH chars.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @param position The position.
+	 */
+	private void insert(char[] text, int length, int position) {
+		if (position + MIN_MATCH <= length) {
+			int h = hash(text, position);
+			prev[position & (WINDOW_SIZE - 1)] = head[h];
+			head[h] = position;
+		}
+	}
+
+	/**
+	 * Finds the longest match for the chars starting at a position that is longer than a given length, by following
+	 * the hash chain of the position back through the window, and keeps it in matchLength and matchDistance. The
+	 * length is 0 if there is no such match.
+	 * @param text The array holding the text.
+	 * @param length The number of chars in the text.
+	 * @param position The position, which must not have been inserted yet.
+	 * @param shorter The length the match has to be longer than, which is at least MIN_MATCH - 1.
+	 * @param chainLength The most positions to look at.
+	 */
+	private void longestMatch(char[] text, int length, int position, int shorter, int chainLength) {
+		matchLength = 0;
+		int limit = Math.min(MAX_MATCH, length - position);
+
+		if (limit <= shorter) {
+			return;
+		}
+
+		int best = shorter;
+		int candidate = head[hash(text, position)];
+
+		for (int chain = 0; chain < chainLength && candidate >= 0 && position - candidate < WINDOW_SIZE; chain++) {
+
+			/*
+			 * A longer match has to match past the end of the best one, so the two chars there are checked first, and
+			 * then the first two chars, which rules out most candidates that only share the hash.
+			 */
+			if (text[candidate + best] == text[position + best] 
+					&& text[candidate + best - 1] == text[position + best - 1] 
+					&& text[candidate] == text[position] && text[candidate + 1] == text[position + 1]) {
+				int n = 2;
+
+				while (n < limit && text[candidate + n] == text[position + n]) {
+					n++;
+				}
+
+				if (n > best && (n > MIN_MATCH || position - candidate <= TOO_FAR)) {
+					best = n;
+					matchLength = n;
+					matchDistance = position - candidate;
+
+					if (n >= niceMatch || n == limit) {
+						return;
+					}
+				}
+			}
+
+			candidate = prev[candidate & (WINDOW_SIZE - 1)];
+		}
+	}
+}
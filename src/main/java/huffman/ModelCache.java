@@ -0,0 +1,68 @@
+package huffman;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to find the model a block was encoded with from the ID stored in the block. Each
+ * model file is read and its tables are built the first time its ID is seen, and every block after that uses the same
+ * model without reading the file again.
+ */
+public class ModelCache {
+
+	//The directory model files are read from, which is the huffman.models system property or "models" by default.
+	public static volatile Path directory = Paths.get(System.getProperty("huffman.models", "models"));
+
+	private static final ConcurrentHashMap<Integer, HuffmanModel> MODELS = new ConcurrentHashMap<>();
+
+	/**
+	 * Finds a model, reading its file from the directory if it is not in the cache yet.
+	 * @param id The ID of the model.
+	 * @return The model.
+	 * @throws IOException If the model is not in the cache and its file could not be read.
+	 */
+	public static HuffmanModel get(int id) throws IOException {
+		HuffmanModel model = MODELS.get(id);
+
+		if (model != null) {
+			return model;
+		}
+
+		Path file = directory.resolve(HuffmanModel.fileName(id));
+
+		if (!Files.exists(file)) {
+			throw new IOException("Huffman model " + HuffmanModel.fileName(id) + " not found in " + directory);
+		}
+
+		InputStream in = new BufferedInputStream(Files.newInputStream(file));
+
+		try {
+			model = HuffmanModel.read(in);
+		}
+		finally {
+			in.close();
+		}
+
+		//If another thread read the same model first, use its copy so there is only ever one.
+		HuffmanModel existing = MODELS.putIfAbsent(id, model);
+
+		return existing != null ? existing : model;
+	}
+
+	/**
+	 * Adds a model to the cache, such as one that was just trained, so that it is used without having a file.
+	 * @param model The model to add.
+	 */
+	public static void put(HuffmanModel model) {
+		MODELS.putIfAbsent(model.id, model);
+	}
+
+	/**
+	 * Removes every model from the cache, so their files are read again the next time they are used.
+	 */
+	public static void clear() {
+		MODELS.clear();
+	}
+}
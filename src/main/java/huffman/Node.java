@@ -1,3 +1,5 @@
+package huffman;
+
 import java.io.Serializable;
 
 /**
@@ -10,7 +12,8 @@ public class Node implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	/*
-	 * Nodes can have certain char values that occur a number of times within the text file. 
+	 * Nodes can have certain char values that occur a number of times within the text file (for a file compressed as 
+	 * raw bytes, each char value is a byte between 0 and 255 inclusive). 
 	 * Some nodes may not represent a char, but its frequency is the sum of the frequency of its child nodes.
 	 */
 	public int freq;
@@ -0,0 +1,303 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * @author Dev Patel
+ * date: 01/21/2021
+ * description: This class is used to compress and decompress a string by means of substituting strings of various
+ * lengths with characters unique to the string.
+ */
+public class Optimization {
+
+	//The lengths of the substrings that are substituted, from greatest to least.
+	public static final int MAX_SUBSTR_LEN = 6;
+	public static final int MIN_SUBSTR_LEN = 2;
+
+	//The most chars the information for decoding can take up, with at most 256 replacement chars for each length.
+	public static final int MAX_DECODE_INFO_LENGTH = (MAX_SUBSTR_LEN - MIN_SUBSTR_LEN + 1) * (1 + 256 * (MAX_SUBSTR_LEN + 1));
+
+	/**
+	 * Compresses a string by substituting unique characters for common substrings. The information for decoding comes
+	 * first in the compressed string: for each substring length from 6 to 2, the number of chars used to replace
+	 * substrings, followed by each of those chars and the substring it replaces. The substituted string comes after.
+	 * @param str The string to be compressed.
+	 * @return The compressed version of the string.
+	 */
+	public static String compress(String str) {
+		return compress(str, new long[MAX_SUBSTR_LEN + 1]);
+	}
+
+	/**
+	 * Compresses a string by substituting unique characters for common substrings, and counts the substitutions.
+	 * @param str The string to be compressed.
+	 * @param substitutions The array used to count how many substrings were replaced, indexed by their length.
+	 * @return The compressed version of the string.
+	 */
+	public static String compress(String str, long[] substitutions) {
+		return compress(str, substitutions, MAX_SUBSTR_LEN);
+	}
+
+	/**
+	 * Compresses a string by substituting unique characters for common substrings of at most a given length, and 
+	 * counts the substitutions. Each substring length is one pass over the string, so leaving out the longer lengths 
+	 * compresses faster. The information for decoding has no substrings for the lengths that are left out.
+	 * @param str The string to be compressed.
+	 * @param substitutions The array used to count how many substrings were replaced, indexed by their length.
+	 * @param maxSubstrLen The longest substrings that are substituted, or less than MIN_SUBSTR_LEN to substitute none.
+	 * @return The compressed version of the string.
+	 */
+	public static String compress(String str, long[] substitutions, int maxSubstrLen) {
+		return compress(str, substitutions, maxSubstrLen, new SubstringCounter(), new SubstitutionTrie());
+	}
+
+	/**
+	 * Compresses a string by substituting unique characters for common substrings of at most a given length, counting
+	 * the substrings and replacing them with a counter and a trie that are kept by the caller, so that a compressor
+	 * that compresses many blocks makes their tables only once.
+	 * @param str The string to be compressed.
+	 * @param substitutions The array used to count how many substrings were replaced, indexed by their length.
+	 * @param maxSubstrLen The longest substrings that are substituted, or less than MIN_SUBSTR_LEN to substitute none.
+	 * @param substrings The counter used for every substring length.
+	 * @param trie The trie used for every substring length, which is cleared before each one.
+	 * @return The compressed version of the string.
+	 */
+	public static String compress(String str, long[] substitutions, int maxSubstrLen, SubstringCounter substrings, 
+			SubstitutionTrie trie) {
+
+		//The chars of the string, which are replaced in place since substituting never makes them longer.
+		char[] chars = str.toCharArray();
+		int length = chars.length;
+
+		//The information for decoding, which is put in front of the string at the end.
+		char[] strDecode = new char[MAX_DECODE_INFO_LENGTH];
+		int decodeLength = 0;
+
+		/*
+		 * This array is used to represent which one-byte characters have been used in the string or in the information
+		 * for decoding (there are 256). Index i represents the integer conversion of a char, and the value at that
+		 * index represents if the char has been used. Chars in the information for decoding stay used for every
+		 * substring length, so a char never has two meanings.
+		 */
+		boolean[] decodeChars = new boolean[256];
+
+		//Compresses substrings with 6-2 chars (length of the substring being compressed is substrLen, from greatest to least).
+		for (int substrLen = MAX_SUBSTR_LEN; substrLen >= MIN_SUBSTR_LEN; substrLen--) {
+
+			//A length that is left out replaces no substrings.
+			if (substrLen > maxSubstrLen) {
+				strDecode[decodeLength++] = 0;
+				continue;
+			}
+
+			boolean[] usedChars = Arrays.copyOf(decodeChars, 256);
+
+			for (int i = 0; i < length; i++) {
+
+				//If the char is a one-byte character, set that char to used.
+				if (chars[i] < 256) {
+					usedChars[chars[i]] = true;
+				}
+			}
+
+			//Iterate through the usedChars array to count the number of one-byte chars that are yet to be used.
+			int available = 0;
+
+			for (int i = 0; i < usedChars.length; i++) {
+				if (usedChars[i] == false) {
+					available++;
+				}
+			}
+
+			//1/5 of the unused chars are reserved for each of the 5 different string lengths (2-6).
+			available /= substrLen - 1;
+
+			//Count the frequency of every string of length substrLen and find the most common ones.
+			substrings.count(chars, length, substrLen);
+			int[] substrPositions = substrings.mostCommon(available);
+
+			/*
+			 * Copy the most common substrings out of the string, since the string is overwritten while they are
+			 * replaced, and give each of them the next unused char.
+			 */
+			char[] substrChars = new char[substrPositions.length * substrLen];
+			char[] replacementChars = new char[substrPositions.length];
+			trie.clear();
+
+			//replacementChar represents the char that replaces a certain substring.
+			int replacementChar = 0;
+
+			for (int i = 0; i < substrPositions.length; i++) {
+				System.arraycopy(chars, substrPositions[i], substrChars, i * substrLen, substrLen);
+
+				//Use the next unused char.
+				while (usedChars[replacementChar]) {
+					replacementChar++;
+				}
+
+				replacementChars[i] = (char)replacementChar;
+				trie.add(substrChars, i * substrLen, substrLen, replacementChars[i]);
+				replacementChar++;
+			}
+
+			//Replace every chosen substring with its char in a single pass over the string.
+			int[] replaced = new int[trie.size()];
+			length = trie.replaceAll(chars, length, replaced);
+
+			//How many unused chars were used to replace substrings, which is filled in once they are counted.
+			int counterIndex = decodeLength++;
+			int counter = 0;
+
+			/*
+			 * Add each char and the substring that the char replaces to the information for decoding, which will be
+			 * used in the decompress method to determine which chars need to be replaced with which corresponding
+			 * substrings. Substrings that were never replaced (because a more common one overlapped them every time)
+			 * are left out.
+			 */
+			for (int i = 0; i < substrPositions.length; i++) {
+				if (replaced[i] > 0) {
+					strDecode[decodeLength++] = replacementChars[i];
+					System.arraycopy(substrChars, i * substrLen, strDecode, decodeLength, substrLen);
+					decodeLength += substrLen;
+					counter++;
+
+					decodeChars[replacementChars[i]] = true;
+					substitutions[substrLen] += replaced[i];
+
+					for (int j = i * substrLen; j < (i + 1) * substrLen; j++) {
+						if (substrChars[j] < 256) {
+							decodeChars[substrChars[j]] = true;
+						}
+					}
+				}
+			}
+
+			strDecode[counterIndex] = (char)counter;
+		}
+
+		//Return the information for decoding followed by the substituted string.
+		char[] compressed = new char[decodeLength + length];
+		System.arraycopy(strDecode, 0, compressed, 0, decodeLength);
+		System.arraycopy(chars, 0, compressed, decodeLength, length);
+
+		return new String(compressed);
+	}
+
+	/**
+	 * Finds how many chars of the information for decoding are at the start of a compressed string.
+	 * @param chars The chars of the compressed string.
+	 * @return The number of chars of the information for decoding.
+	 */
+	public static int decodeInfoLength(char[] chars) {
+		int i = 0;
+
+		for (int substrLen = MAX_SUBSTR_LEN; substrLen >= MIN_SUBSTR_LEN; substrLen--) {
+			i += 1 + chars[i] * (substrLen + 1);
+		}
+
+		return i;
+	}
+
+	/**
+	 * Builds a table of the substring each replacement char stands for, from the information for decoding at the start
+	 * of a compressed string. A substring may itself hold chars that replace longer substrings, so those are expanded
+	 * as the table is built, and every entry of the table is made only of chars from the original string.
+	 * @param strDecode The chars of the information for decoding.
+	 * @return The table of substrings, indexed by the replacement char, with null for chars that replace nothing.
+	 */
+	public static char[][] expansions(char[] strDecode) {
+
+		//Replacement chars of a compressed string are always one-byte chars.
+		return expansions(strDecode, 256);
+	}
+
+	/**
+	 * Builds a table of the substring each replacement char stands for, for information for decoding whose 
+	 * replacement chars may be above the one-byte chars, like the dictionary of a HuffmanModel.
+	 * @param strDecode The chars of the information for decoding.
+	 * @param tableSize The size of the table, which must be greater than every replacement char.
+	 * @return The table of substrings, indexed by the replacement char, with null for chars that replace nothing.
+	 */
+	public static char[][] expansions(char[] strDecode, int tableSize) {
+		char[][] table = new char[tableSize][];
+		int i = 0;
+
+		//Substrings only ever hold chars that replace longer substrings, so build the table from longest to shortest.
+		for (int substrLen = MAX_SUBSTR_LEN; substrLen >= MIN_SUBSTR_LEN; substrLen--) {
+			int numSubstrings = strDecode[i++];
+
+			for (int n = 0; n < numSubstrings; n++) {
+				char replacementChar = strDecode[i++];
+
+				//Add up the length of the substring once every char in it is expanded.
+				int expandedLength = 0;
+
+				for (int j = i; j < i + substrLen; j++) {
+					char c = strDecode[j];
+					expandedLength += c < tableSize && table[c] != null ? table[c].length : 1;
+				}
+
+				char[] expansion = new char[expandedLength];
+				int written = 0;
+
+				for (int j = i; j < i + substrLen; j++) {
+					written = expand(strDecode[j], table, expansion, written);
+				}
+
+				table[replacementChar] = expansion;
+				i += substrLen;
+			}
+		}
+
+		return table;
+	}
+
+	/**
+	 * Writes a char, or the substring it replaces, to an array.
+	 * @param c The char to be written.
+	 * @param table The table of substrings made by the expansions method.
+	 * @param out The array the char or substring is written to.
+	 * @param position The index in the array to write to.
+	 * @return The index in the array after what was written.
+	 */
+	public static int expand(char c, char[][] table, char[] out, int position) {
+		char[] expansion = c < table.length ? table[c] : null;
+
+		if (expansion == null) {
+			out[position] = c;
+			return position + 1;
+		}
+
+		System.arraycopy(expansion, 0, out, position, expansion.length);
+		return position + expansion.length;
+	}
+
+	/**
+	 * Decompresses a string that has been compressed using chars to replace substrings.
+	 * @param str The string to be decompressed.
+	 * @return The decompressed string.
+	 */
+	public static String decompress(String str) {
+		char[] chars = str.toCharArray();
+		int start = decodeInfoLength(chars);
+		char[][] table = expansions(chars);
+
+		//Add up the length of the decompressed string, so that it can be written in a single pass.
+		int length = 0;
+
+		for (int i = start; i < chars.length; i++) {
+			length += chars[i] < 256 && table[chars[i]] != null ? table[chars[i]].length : 1;
+		}
+
+		//Substitute each replacement char with its corresponding substring by using the table.
+		char[] decompressed = new char[length];
+		int written = 0;
+
+		for (int i = start; i < chars.length; i++) {
+			written = expand(chars[i], table, decompressed, written);
+		}
+
+		//Return the decompressed string.
+		return new String(decompressed);
+	}
+}
\ No newline at end of file
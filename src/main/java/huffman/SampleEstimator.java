@@ -0,0 +1,107 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to guess how well a block will compress from a sample of it, before any time is
+ * spent compressing it. The sample of a long block is made of SAMPLE_RUNS runs of chars spread evenly over it. The
+ * histogram of the sample gives the entropy of its chars, which is about how many bits Huffman codes will take for
+ * each char, and the share of the sample whose next three chars already occurred earlier in the sample tells whether
+ * substituting substrings or finding matches has anything to gain. The arrays are made once and reused by every block.
+ */
+public class SampleEstimator {
+
+	//The most chars sampled from a block, and the number of runs they are split into.
+	public static final int SAMPLE_SIZE = 1 << 16;
+	public static final int SAMPLE_RUNS = 16;
+
+	/*
+	 * The smallest share of repeated chars for which a stage is run, and how close the entropy has to be to the bits
+	 * of a stored char for a block without repeats to be stored without even trying Huffman codes.
+	 */
+	public static final double MIN_REPEATS = 0.2;
+	public static final double ENTROPY_MARGIN = 0.05;
+
+	private static final int HASH_BITS = 20;
+
+	/*
+	 * The frequency of each char of the sample, indexed by the char, the chars that occur, and one bit for each hash
+	 * of three chars that occurred in the sample.
+	 */
+	private int[] freqs = new int[Character.MAX_VALUE + 1];
+	private char[] symbols = new char[Character.MAX_VALUE + 1];
+	private long[] seen = new long[(1 << HASH_BITS) / 64];
+
+	//The entropy of the sample in bits per char, and the share of its chars whose next three chars were seen before.
+	public double entropy;
+	public double repeats;
+
+	/**
+	 * Samples a block and finds its entropy and its share of repeats.
+	 * @param str The text of the block.
+	 */
+	public void sample(String str) {
+		int length = str.length();
+
+		//A block no longer than the sample is sampled whole, and a longer one in runs at even steps through it.
+		int runs = length <= SAMPLE_SIZE ? 1 : SAMPLE_RUNS;
+		int runLength = Math.min(length, SAMPLE_SIZE) / runs;
+		int count = runs * runLength;
+		int symbolCount = 0;
+		int repeated = 0;
+
+		Arrays.fill(seen, 0);
+
+		for (int run = 0; run < runs; run++) {
+			int start = (int)((long)length * run / runs);
+
+			for (int i = start; i < start + runLength; i++) {
+				char c = str.charAt(i);
+
+				if (freqs[c]++ == 0) {
+					symbols[symbolCount++] = c;
+				}
+
+				if (i + 2 < length) {
+					int h = (c * 0x9E3779B1 ^ str.charAt(i + 1) * 0x85EBCA77 ^ str.charAt(i + 2) * 0xC2B2AE3D)
+							>>> (32 - HASH_BITS);
+
+					if ((seen[h >>> 6] & 1L << h) != 0) {
+						repeated++;
+					}
+
+					seen[h >>> 6] |= 1L << h;
+				}
+			}
+		}
+
+		//The entropy times the count is the sum of -freq * log2(freq / count) over every char.
+		double bits = 0;
+
+		for (int i = 0; i < symbolCount; i++) {
+			int freq = freqs[symbols[i]];
+			bits -= freq * Math.log((double)freq / count);
+			freqs[symbols[i]] = 0;
+		}
+
+		entropy = count == 0 ? 0 : bits / Math.log(2) / count;
+		repeats = count == 0 ? 0 : (double)repeated / count;
+	}
+
+	/**
+	 * @return Whether the last block that was sampled repeats enough for substitution or LZ77 to be worth running.
+	 */
+	public boolean stageProfitable() {
+		return repeats >= MIN_REPEATS;
+	}
+
+	/**
+	 * @param charBits The number of bits each char of the block takes up when it is stored raw.
+	 * @return Whether Huffman codes would save next to nothing on the last block that was sampled, so it should be
+	 * stored raw.
+	 */
+	public boolean incompressible(int charBits) {
+		return !stageProfitable() && entropy >= charBits - ENTROPY_MARGIN;
+	}
+}
@@ -0,0 +1,197 @@
+package huffman;
+
+import java.util.Arrays;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to replace many substrings with their replacement chars in a single left-to-right
+ * pass over an array of chars. The substrings are stored in a trie, and at each position the longest substring that
+ * starts there is replaced. The edges of the trie are kept in an open-addressing table keyed by the parent node and
+ * the char, so a trie over 16-bit chars stays small.
+ */
+public class SubstitutionTrie {
+
+	//The substring that ends at each node of the trie, or -1 if no substring ends there. Node 0 is the root.
+	private int[] substrIndex = new int[] {-1};
+	private int nodeCount = 1;
+
+	//The edges of the trie. Each key is a parent node shifted left by 16 bits plus a char, and each value is the child.
+	private long[] edgeKeys = new long[64];
+	private int[] edgeChildren = new int[64];
+	private int edgeCount;
+
+	//The replacement char of each substring.
+	private char[] replacements = new char[16];
+	private int substrCount;
+
+	/**
+	 * Adds a substring to the trie.
+	 * @param chars The array holding the substring.
+	 * @param offset The position of the substring in the array.
+	 * @param length The number of chars in the substring.
+	 * @param replacement The char that replaces the substring.
+	 * @return The index of the substring, used for its count in replaceAll.
+	 */
+	public int add(char[] chars, int offset, int length, char replacement) {
+		int node = 0;
+
+		for (int i = offset; i < offset + length; i++) {
+			int child = child(node, chars[i]);
+
+			if (child == -1) {
+				child = addNode();
+				addEdge(node, chars[i], child);
+			}
+
+			node = child;
+		}
+
+		if (substrCount == replacements.length) {
+			replacements = Arrays.copyOf(replacements, substrCount * 2);
+		}
+
+		replacements[substrCount] = replacement;
+		substrIndex[node] = substrCount;
+
+		return substrCount++;
+	}
+
+	/**
+	 * Removes every substring from the trie, keeping its arrays so that it can be filled again without allocating.
+	 */
+	public void clear() {
+		substrIndex[0] = -1;
+		nodeCount = 1;
+		Arrays.fill(edgeKeys, 0);
+		edgeCount = 0;
+		substrCount = 0;
+	}
+
+	/**
+	 * @return The number of substrings in the trie.
+	 */
+	public int size() {
+		return substrCount;
+	}
+
+	/**
+	 * Replaces every substring in the array with its replacement char, in place. At each position the longest substring
+	 * that starts there is replaced, and the search continues after it.
+	 * @param chars The array of chars, which is overwritten with the result.
+	 * @param length The number of chars in the array that are used.
+	 * @param counts The array used to count how many times each substring was replaced, indexed by the substring.
+	 * @return The number of chars in the result.
+	 */
+	public int replaceAll(char[] chars, int length, int[] counts) {
+		int written = 0;
+		int i = 0;
+
+		while (i < length) {
+			int node = 0;
+			int matchIndex = -1;
+			int matchLength = 0;
+
+			//Walk the trie from the current position, remembering the longest substring found so far.
+			for (int j = i; j < length; j++) {
+				node = child(node, chars[j]);
+
+				if (node == -1) {
+					break;
+				}
+
+				if (substrIndex[node] != -1) {
+					matchIndex = substrIndex[node];
+					matchLength = j - i + 1;
+				}
+			}
+
+			/*
+			 * The result is never longer than what has been read, so it can be written over the chars that have already
+			 * been read.
+			 */
+			if (matchIndex != -1) {
+				chars[written++] = replacements[matchIndex];
+				counts[matchIndex]++;
+				i += matchLength;
+			}
+			else {
+				chars[written++] = chars[i++];
+			}
+		}
+
+		return written;
+	}
+
+	/**
+	 * @return The number of the new node.
+	 */
+	private int addNode() {
+		if (nodeCount == substrIndex.length) {
+			substrIndex = Arrays.copyOf(substrIndex, nodeCount * 2);
+		}
+
+		substrIndex[nodeCount] = -1;
+
+		return nodeCount++;
+	}
+
+	/**
+	 * @param node The parent node.
+	 * @param c The char of the edge.
+	 * @return The slot in the edge table for the edge, or the empty slot where it would go.
+	 */
+	private int edgeSlot(int node, char c) {
+		long key = ((long)node << 16) | c;
+		int mask = edgeKeys.length - 1;
+		int slot = (int)((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+
+		//Keys are stored plus one so that 0 marks an empty slot.
+		while (edgeKeys[slot] != 0 && edgeKeys[slot] != key + 1) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * @param node The parent node.
+	 * @param c The char of the edge.
+	 * @return The child reached by the edge, or -1 if there is no such edge.
+	 */
+	private int child(int node, char c) {
+		int slot = edgeSlot(node, c);
+
+		return edgeKeys[slot] == 0 ? -1 : edgeChildren[slot];
+	}
+
+	/**
+	 * Adds an edge, doubling the edge table first if it is half full.
+	 * @param node The parent node.
+	 * @param c The char of the edge.
+	 * @param child The child reached by the edge.
+	 */
+	private void addEdge(int node, char c, int child) {
+		if ((edgeCount + 1) * 2 > edgeKeys.length) {
+			long[] oldKeys = edgeKeys;
+			int[] oldChildren = edgeChildren;
+
+			edgeKeys = new long[oldKeys.length * 2];
+			edgeChildren = new int[oldKeys.length * 2];
+
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0) {
+					long key = oldKeys[i] - 1;
+					int slot = edgeSlot((int)(key >>> 16), (char)key);
+
+					edgeKeys[slot] = oldKeys[i];
+					edgeChildren[slot] = oldChildren[i];
+				}
+			}
+		}
+
+		int slot = edgeSlot(node, c);
+		edgeKeys[slot] = ((long)node << 16 | c) + 1;
+		edgeChildren[slot] = child;
+		edgeCount++;
+	}
+}
@@ -0,0 +1,240 @@
+package huffman;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to count how many times every substring of one length occurs within an array of
+ * chars, without making a String for each substring. Each substring is found by a 64-bit rolling hash in an
+ * open-addressing table of primitive arrays, and the position of its first occurrence is kept so that substrings with
+ * the same hash are told apart by comparing their chars. The tables are made once and reused by every count, and only
+ * the slots the last count filled are cleared.
+ */
+public class SubstringCounter {
+
+	//The multiplier of the rolling hash.
+	private static final long BASE = 0x100000001B3L;
+
+	private char[] chars;
+	private int substrLen;
+
+	/*
+	 * The table of substrings. Each slot holds the hash of a substring, the position of its first occurrence in chars
+	 * and the number of times it occurs. A slot with a count of 0 is empty. The table only grows, and is reused by
+	 * every count.
+	 */
+	private long[] hashes = new long[0];
+	private int[] positions = new int[0];
+	private int[] counts = new int[0];
+	private int mask;
+
+	//The slots that were filled by the last count, so only those are cleared before the next one.
+	private int[] filled = new int[0];
+	private int filledCount;
+
+	//The min-heap of slots used by mostCommon.
+	private int[] heap = new int[0];
+
+	/**
+	 * Constructs a SubstringCounter object with empty tables, which grow to fit the longest array that is counted.
+	 */
+	public SubstringCounter() {
+	}
+
+	/**
+	 * Constructs a SubstringCounter object and counts every substring of a length.
+	 * @param chars The chars to count the substrings of.
+	 * @param length The number of chars in the array that are used.
+	 * @param substrLen The length of the substrings to count.
+	 */
+	public SubstringCounter(char[] chars, int length, int substrLen) {
+		count(chars, length, substrLen);
+	}
+
+	/**
+	 * Counts every substring of a length, replacing the counts of the last array that was counted.
+	 * @param chars The chars to count the substrings of.
+	 * @param length The number of chars in the array that are used.
+	 * @param substrLen The length of the substrings to count.
+	 */
+	public void count(char[] chars, int length, int substrLen) {
+		this.chars = chars;
+		this.substrLen = substrLen;
+
+		for (int i = 0; i < filledCount; i++) {
+			counts[filled[i]] = 0;
+		}
+
+		filledCount = 0;
+
+		int positionCount = Math.max(0, length - substrLen + 1);
+
+		//Keep the table at most half full so that probing stays short.
+		int capacity = Integer.highestOneBit(Math.max(16, positionCount * 2 - 1)) << 1;
+
+		if (hashes.length < capacity) {
+			hashes = new long[capacity];
+			positions = new int[capacity];
+			counts = new int[capacity];
+			filled = new int[capacity / 2];
+		}
+
+		mask = hashes.length - 1;
+
+		if (positionCount == 0) {
+			return;
+		}
+
+		//BASE to the power of substrLen - 1, which is the weight of the char leaving the rolling hash.
+		long outWeight = 1;
+		long hash = 0;
+
+		for (int i = 0; i < substrLen; i++) {
+			hash = hash * BASE + chars[i];
+
+			if (i > 0) {
+				outWeight *= BASE;
+			}
+		}
+
+		for (int i = 0; ; i++) {
+			add(hash, i);
+
+			if (i + 1 == positionCount) {
+				break;
+			}
+
+			//Roll the hash forward by removing the first char and adding the next one.
+			hash = (hash - chars[i] * outWeight) * BASE + chars[i + substrLen];
+		}
+	}
+
+	/**
+	 * Counts the substring that starts at a position.
+	 * @param hash The hash of the substring.
+	 * @param position The position of the substring.
+	 */
+	private void add(long hash, int position) {
+		int slot = (int)((hash * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+
+		while (counts[slot] != 0) {
+			if (hashes[slot] == hash && sameChars(positions[slot], position)) {
+				counts[slot]++;
+				return;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		hashes[slot] = hash;
+		positions[slot] = position;
+		counts[slot] = 1;
+		filled[filledCount++] = slot;
+	}
+
+	/**
+	 * @param first The position of the first substring.
+	 * @param second The position of the second substring.
+	 * @return Whether the two substrings have the same chars.
+	 */
+	private boolean sameChars(int first, int second) {
+		for (int i = 0; i < substrLen; i++) {
+			if (chars[first + i] != chars[second + i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the most common substrings using a min-heap that never holds more than k of them, so the substrings do not
+	 * have to be sorted.
+	 * @param k The number of substrings to find.
+	 * @return The positions of the first occurrences of the most common substrings, from most to least common.
+	 */
+	public int[] mostCommon(int k) {
+		if (heap.length < k) {
+			heap = new int[k];
+		}
+
+		int size = 0;
+
+		//Only the filled slots are looked at, in the order they were filled.
+		for (int i = 0; i < filledCount && k > 0; i++) {
+			int slot = filled[i];
+
+			if (size < k) {
+				heap[size] = slot;
+				siftUp(heap, size);
+				size++;
+			}
+
+			//Replace the least common substring in the heap if this one is more common.
+			else if (counts[slot] > counts[heap[0]]) {
+				heap[0] = slot;
+				siftDown(heap, size, 0);
+			}
+		}
+
+		//Removing the least common substring from the heap each time fills the array from the end.
+		int[] mostCommon = new int[size];
+
+		for (int i = size - 1; i >= 0; i--) {
+			mostCommon[i] = positions[heap[0]];
+			heap[0] = heap[i];
+			siftDown(heap, i, 0);
+		}
+
+		return mostCommon;
+	}
+
+	/**
+	 * Moves a slot in the heap up until its parent is not more common.
+	 * @param heap The heap of slots.
+	 * @param i The index of the slot in the heap.
+	 */
+	private void siftUp(int[] heap, int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+
+			if (counts[heap[parent]] <= counts[heap[i]]) {
+				break;
+			}
+
+			int temp = heap[parent];
+			heap[parent] = heap[i];
+			heap[i] = temp;
+			i = parent;
+		}
+	}
+
+	/**
+	 * Moves a slot in the heap down until neither of its children is less common.
+	 * @param heap The heap of slots.
+	 * @param size The number of slots in the heap.
+	 * @param i The index of the slot in the heap.
+	 */
+	private void siftDown(int[] heap, int size, int i) {
+		while (true) {
+			int smallest = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+
+			if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+				smallest = left;
+			}
+
+			if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+				smallest = right;
+			}
+
+			if (smallest == i) {
+				return;
+			}
+
+			int temp = heap[smallest];
+			heap[smallest] = heap[i];
+			heap[i] = temp;
+			i = smallest;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test adding text to the end of a compressed file, which has to read back the
+ * same as if both texts had been compressed together.
+ */
+class AppendTest {
+
+	@TempDir
+	File directory;
+
+	/**
+	 * @param file A compressed file.
+	 * @return The text it decodes to.
+	 * @throws IOException If the file could not be decoded.
+	 */
+	private File decoded(File file) throws IOException {
+		File output = new File(directory, file.getName() + ".out");
+		HuffmanDecode.decode(file, output);
+
+		return output;
+	}
+
+	/**
+	 * @param file A file.
+	 * @return The contents of the file as UTF-8 text.
+	 * @throws IOException If the file could not be read.
+	 */
+	private static String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void appendText() throws IOException {
+		String first = TestData.english(HuffmanEncode.BLOCK_SIZE + 1000);
+		String second = "and then the emperor said 😀 ".repeat(5000);
+
+		File compressed = new File(directory, "text.huf");
+		HuffmanEncode.encode(TestData.write(directory, "first.txt", TestData.utf8(first)), compressed);
+		HuffmanEncode.append(TestData.write(directory, "second.txt", TestData.utf8(second)), compressed);
+
+		assertEquals(first + second, read(decoded(compressed)));
+
+		//Every way of reading the file sees the new blocks, including the stream decoder and the index.
+		byte[] bytes = Files.readAllBytes(compressed.toPath());
+		assertEquals(first + second, new String(TestData.decode(bytes), StandardCharsets.UTF_8));
+		assertEquals((first + second).substring(first.length() - 10, first.length() + 10),
+				HuffmanDecode.decodeRange(compressed, first.length() - 10, 20));
+	}
+
+	@Test
+	void appendTwice() throws IOException {
+		File compressed = new File(directory, "log.huf");
+		HuffmanEncode.encode(TestData.write(directory, "a.txt", TestData.utf8("first line\n")), compressed);
+
+		StringBuilder expected = new StringBuilder("first line\n");
+
+		for (int i = 0; i < 3; i++) {
+			String line = "line " + i + "\n";
+			HuffmanEncode.append(TestData.write(directory, "line.txt", TestData.utf8(line)), compressed);
+			expected.append(line);
+		}
+
+		assertEquals(expected.toString(), read(decoded(compressed)));
+	}
+
+	@Test
+	void appendEmpty() throws IOException {
+		File compressed = new File(directory, "text.huf");
+		HuffmanEncode.encode(TestData.write(directory, "text.txt", TestData.utf8("some text")), compressed);
+		HuffmanEncode.append(TestData.write(directory, "empty.txt", new byte[0]), compressed);
+
+		assertEquals("some text", read(decoded(compressed)));
+	}
+
+	@Test
+	void appendInDifferentMode() throws IOException {
+		File compressed = new File(directory, "text.huf");
+		HuffmanEncode.encode(TestData.write(directory, "text.txt", TestData.utf8("some text")), compressed);
+		byte[] before = Files.readAllBytes(compressed.toPath());
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+		File more = TestData.write(directory, "more.bin", new byte[] {1, 2, 3});
+
+		assertThrows(IOException.class, () -> HuffmanEncode.append(more, compressed, settings));
+		assertArrayEquals(before, Files.readAllBytes(compressed.toPath()));
+	}
+
+	@Test
+	void failedAppend() throws IOException {
+		File compressed = new File(directory, "text.huf");
+		HuffmanEncode.encode(TestData.write(directory, "text.txt", TestData.utf8("some text")), compressed);
+		byte[] before = Files.readAllBytes(compressed.toPath());
+
+		//A directory cannot be read as a file, so adding it fails after the compressed file has been copied.
+		File unreadable = new File(directory, "unreadable");
+		unreadable.mkdir();
+
+		assertThrows(IOException.class, () -> HuffmanEncode.append(unreadable, compressed));
+		assertArrayEquals(before, Files.readAllBytes(compressed.toPath()));
+		assertEquals(3, directory.list().length, "the copy was not deleted");
+		assertEquals("some text", read(decoded(compressed)));
+	}
+}
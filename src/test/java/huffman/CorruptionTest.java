@@ -0,0 +1,134 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test that a damaged compressed file is reported as damaged instead of being
+ * decoded to the wrong text, whether a byte of a block is changed, a block is moved, or the file is cut short.
+ */
+class CorruptionTest {
+
+	@TempDir
+	File directory;
+
+	/**
+	 * @param settings The settings to compress with.
+	 * @return A compressed file of a little over two blocks.
+	 * @throws IOException If the text could not be compressed.
+	 */
+	private static byte[] compressed(EncodeSettings settings) throws IOException {
+		return TestData.encode(TestData.utf8(TestData.english(HuffmanEncode.BLOCK_SIZE * 2 + 100)), settings);
+	}
+
+	/**
+	 * Checks that every decoder finds a damaged file.
+	 * @param damaged The damaged file.
+	 * @throws IOException If the damaged file could not be written to disk.
+	 */
+	private void assertDamaged(byte[] damaged) throws IOException {
+		assertThrows(IOException.class, () -> TestData.decode(damaged));
+		assertThrows(IOException.class, () -> new HuffmanDecompressor().decompress(damaged));
+
+		File file = TestData.write(directory, "damaged.huf", damaged);
+		File output = new File(directory, "damaged.txt");
+		assertThrows(IOException.class, () -> HuffmanDecode.decode(file, output));
+	}
+
+	/**
+	 * @param compressed A compressed file.
+	 * @return The index of the file.
+	 * @throws IOException If the index could not be read.
+	 */
+	private BlockIndex index(byte[] compressed) throws IOException {
+		File file = TestData.write(directory, "index.huf", compressed);
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+
+		try {
+			return BlockIndex.read(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {HuffmanEncode.STAGE_SUBSTITUTION, HuffmanEncode.STAGE_LZ77})
+	void changedByte(int stage) throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = stage;
+
+		byte[] compressed = compressed(settings);
+		BlockIndex index = index(compressed);
+
+		//Change one bit in the middle of the encoded bits of the second block.
+		int position = (int)((index.offsets.get(1) + index.blockEnd(1)) / 2);
+		compressed[position] ^= 0x10;
+
+		assertDamaged(compressed);
+	}
+
+	@Test
+	void changedStoredByte() throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+
+		byte[] compressed = TestData.encode(TestData.randomBytes(100_000), settings);
+		compressed[5000] ^= 1;
+
+		assertDamaged(compressed);
+	}
+
+	@Test
+	void swappedBlocks() throws IOException {
+		byte[] compressed = compressed(new EncodeSettings());
+		BlockIndex index = index(compressed);
+
+		//The first two blocks hold the same number of chars, so each still decodes, but in the wrong order.
+		int first = (int)(long)index.offsets.get(0);
+		int second = (int)(long)index.offsets.get(1);
+		int third = (int)(long)index.offsets.get(2);
+
+		byte[] swapped = compressed.clone();
+		System.arraycopy(compressed, second, swapped, first, third - second);
+		System.arraycopy(compressed, first, swapped, first + third - second, second - first);
+
+		assertThrows(IOException.class, () -> TestData.decode(swapped));
+		assertThrows(IOException.class, () -> new HuffmanDecompressor().decompress(swapped));
+	}
+
+	@Test
+	void changedFileChecksum() throws IOException {
+		byte[] compressed = compressed(new EncodeSettings());
+		BlockIndex index = index(compressed);
+
+		//The checksum of the whole file comes right after the end marker.
+		compressed[(int)index.blocksEnd + 4] ^= 1;
+
+		assertDamaged(compressed);
+	}
+
+	@Test
+	void cutShort() throws IOException {
+		byte[] compressed = compressed(new EncodeSettings());
+		BlockIndex index = index(compressed);
+		byte[] cut = Arrays.copyOf(compressed, (int)(index.offsets.get(1) + 100));
+
+		assertThrows(IOException.class, () -> TestData.decode(cut));
+	}
+
+	@Test
+	void notCompressed() throws IOException {
+		byte[] text = TestData.utf8(TestData.english(1000));
+
+		assertDamaged(text);
+	}
+}
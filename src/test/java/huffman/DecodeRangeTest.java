@@ -0,0 +1,96 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test decoding part of a compressed file through its index, with parts that
+ * start, end or cross at the edges of blocks.
+ */
+class DecodeRangeTest {
+
+	private static final int BLOCK = HuffmanEncode.BLOCK_SIZE;
+
+	@TempDir
+	static File directory;
+
+	//A text of two and a half blocks, and the file it is compressed to.
+	private static String text;
+	private static File compressed;
+
+	@BeforeAll
+	static void compress() throws IOException {
+		text = TestData.english(BLOCK * 2 + BLOCK / 2);
+		compressed = new File(directory, "text.huf");
+
+		File input = TestData.write(directory, "text.txt", TestData.utf8(text));
+		HuffmanEncode.encode(input, compressed);
+	}
+
+	/**
+	 * Checks that a part of the file decodes to the same part of the text.
+	 * @param start The offset of the part.
+	 * @param length The number of chars in the part.
+	 * @throws IOException If the part could not be decoded.
+	 */
+	private static void assertRange(long start, long length) throws IOException {
+		int from = (int)Math.min(start, text.length());
+		int to = (int)Math.min(start + length, text.length());
+
+		assertEquals(text.substring(from, to), HuffmanDecode.decodeRange(compressed, start, length));
+	}
+
+	@Test
+	void withinBlocks() throws IOException {
+		assertRange(0, 10);
+		assertRange(12345, 1000);
+		assertRange(BLOCK + 12345, 1000);
+	}
+
+	@Test
+	void atBlockEdges() throws IOException {
+		assertRange(0, BLOCK);
+		assertRange(BLOCK, BLOCK);
+		assertRange(BLOCK - 1, 1);
+		assertRange(BLOCK, 1);
+		assertRange(BLOCK - 1, 2);
+		assertRange(2 * BLOCK - 1, 2);
+	}
+
+	@Test
+	void acrossBlocks() throws IOException {
+		assertRange(BLOCK - 5000, BLOCK + 10000);
+		assertRange(0, text.length());
+	}
+
+	@Test
+	void pastTheEnd() throws IOException {
+		assertRange(text.length() - 10, 100);
+		assertRange(text.length(), 10);
+		assertRange(BLOCK, 0);
+	}
+
+	@Test
+	void bytesMode() throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+
+		byte[] data = TestData.utf8("naïve café ".repeat(BLOCK / 10));
+		File input = TestData.write(directory, "data.bin", data);
+		File file = new File(directory, "data.huf");
+		HuffmanEncode.encode(input, file, settings);
+
+		byte[] part = HuffmanDecode.decodeByteRange(file, BLOCK - 3, 7);
+
+		assertArrayEquals(Arrays.copyOfRange(data, BLOCK - 3, BLOCK + 4), part);
+		assertEquals(new String(data, StandardCharsets.ISO_8859_1), HuffmanDecode.decodeRange(file, 0, data.length));
+	}
+}
@@ -0,0 +1,48 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test compressing and decompressing a directory tree as a batch, with more files
+ * than threads so that the compressors of the batch are reused from one file to the next.
+ */
+class HuffmanBatchTest {
+
+	@TempDir
+	File directory;
+
+	@Test
+	void compressAndDecompress() throws IOException {
+		File input = new File(directory, "input");
+		File nested = new File(input, "nested");
+		nested.mkdirs();
+
+		byte[][] contents = {TestData.utf8(TestData.english(200_000)), TestData.randomBytes(50_000), new byte[0],
+				TestData.utf8("x")};
+
+		for (int i = 0; i < contents.length; i++) {
+			TestData.write(i % 2 == 0 ? input : nested, "file" + i, contents[i]);
+		}
+
+		File compressed = new File(directory, "compressed");
+		File output = new File(directory, "output");
+
+		CompressionStats stats = HuffmanBatch.compress(input.toPath(), compressed.toPath(), 2, 1L << 30);
+		HuffmanBatch.decompress(compressed.toPath(), output.toPath(), 2, 1L << 30);
+
+		assertTrue(new File(compressed, "nested/file1" + HuffmanBatch.EXTENSION).isFile());
+		assertEquals(200_000 + 50_000 + 1, stats.bytesIn);
+
+		for (int i = 0; i < contents.length; i++) {
+			File file = new File(i % 2 == 0 ? output : new File(output, "nested"), "file" + i);
+			assertArrayEquals(contents[i], Files.readAllBytes(file.toPath()));
+		}
+	}
+}
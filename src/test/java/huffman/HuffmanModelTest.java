@@ -0,0 +1,128 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test compressing with a trained model, which must give back the same text and
+ * must never make the compressed file bigger than it would have been without the model.
+ */
+class HuffmanModelTest {
+
+	private static HuffmanModel model;
+
+	@BeforeAll
+	static void train() {
+		StringBuilder sample = new StringBuilder();
+
+		for (int i = 0; i < 2000; i++) {
+			sample.append("{\"id\":").append(i).append(",\"name\":\"user").append(i % 37).append("\",\"active\":")
+					.append(i % 3 == 0).append("}\n");
+		}
+
+		model = HuffmanModel.train(sample.toString());
+		ModelCache.put(model);
+	}
+
+	/**
+	 * Compresses a text with and without the model, and checks that the model does no worse and decodes correctly.
+	 * @param text The text.
+	 * @param mode The mode to compress in.
+	 * @throws IOException If the text could not be compressed or decompressed.
+	 */
+	private static void assertNoWorse(String text, int mode) throws IOException {
+		EncodeSettings plain = new EncodeSettings();
+		plain.mode = mode;
+
+		EncodeSettings withModel = new EncodeSettings();
+		withModel.mode = mode;
+		withModel.model = model;
+
+		byte[] bytes = mode == HuffmanEncode.MODE_BYTES ? text.getBytes("ISO-8859-1") : TestData.utf8(text);
+		byte[] without = TestData.encode(bytes, plain);
+		byte[] with = TestData.encode(bytes, withModel);
+
+		assertTrue(with.length <= without.length, with.length + " bytes with the model, " + without.length
+				+ " without");
+		assertArrayEquals(bytes, TestData.decode(with));
+
+		HuffmanCompressor compressor = new HuffmanCompressor(withModel);
+		byte[] compressed = mode == HuffmanEncode.MODE_BYTES ? compressor.compress(bytes) : compressor.compress(text);
+		byte[] plainCompressed = mode == HuffmanEncode.MODE_BYTES
+				? new HuffmanCompressor(plain).compress(bytes) : new HuffmanCompressor(plain).compress(text);
+
+		assertTrue(compressed.length <= plainCompressed.length);
+		assertEquals(text, new HuffmanDecompressor().decompressString(compressed));
+	}
+
+	@Test
+	void smallPayload() throws IOException {
+		String payload = "{\"id\":999,\"name\":\"user5\",\"active\":true}";
+
+		assertNoWorse(payload, HuffmanEncode.MODE_CHARS);
+		assertNoWorse(payload, HuffmanEncode.MODE_BYTES);
+
+		//Compressed in memory, the payload comes out smaller than it went in.
+		EncodeSettings settings = new EncodeSettings();
+		settings.model = model;
+
+		byte[] compressed = new HuffmanCompressor(settings).compress(payload);
+
+		assertEquals(HuffmanEncode.FRAMED_BLOCK, compressed[0] & 0xFF);
+		assertTrue(compressed.length < payload.length(), compressed.length + " bytes");
+	}
+
+	@Test
+	void repetitiveText() throws IOException {
+
+		//The model gives each char several bits, where the block's own code and substitutions need almost none.
+		assertNoWorse("abc".repeat(2_000_000), HuffmanEncode.MODE_CHARS);
+	}
+
+	@Test
+	void unlikeTheSample() throws IOException {
+		assertNoWorse(TestData.english(300_000), HuffmanEncode.MODE_CHARS);
+		assertNoWorse("x", HuffmanEncode.MODE_CHARS);
+		assertNoWorse("", HuffmanEncode.MODE_CHARS);
+	}
+
+	@Test
+	void randomBytes() throws IOException {
+		String text = new String(TestData.randomBytes(50_000), "ISO-8859-1");
+
+		assertNoWorse(text, HuffmanEncode.MODE_BYTES);
+	}
+
+	@Test
+	void charsTheModelCannotEncode() throws IOException {
+		assertNoWorse("{\"id\":1,\"name\":\"日本語\"}", HuffmanEncode.MODE_CHARS);
+	}
+
+	@Test
+	void writeAndRead() throws IOException {
+		ByteArrayOutputStream file = new ByteArrayOutputStream();
+		model.write(file);
+
+		HuffmanModel read = HuffmanModel.read(new ByteArrayInputStream(file.toByteArray()));
+
+		assertEquals(model.id, read.id);
+		assertArrayEquals(model.dictionary, read.dictionary);
+	}
+
+	@Test
+	void otherVersion() throws IOException {
+		ByteArrayOutputStream file = new ByteArrayOutputStream();
+		model.write(file);
+
+		//The version comes right after the magic number.
+		byte[] bytes = file.toByteArray();
+		bytes[4] = (byte)(HuffmanModel.VERSION + 1);
+
+		assertThrows(IOException.class, () -> HuffmanModel.read(new ByteArrayInputStream(bytes)));
+	}
+}
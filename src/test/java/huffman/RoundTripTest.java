@@ -0,0 +1,341 @@
+package huffman;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to test that every kind of block, and every way of reading and writing the block
+ * format, gives back exactly what was compressed. The kind of block is checked by its marker, so a test cannot pass
+ * by quietly falling back to a stored block.
+ */
+class RoundTripTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * Compresses a text in chars mode, checks that the first block has the expected marker, and decompresses it.
+	 * @param text The text.
+	 * @param settings The settings to compress with.
+	 * @return The marker of the first block.
+	 * @throws IOException If the text could not be compressed or decompressed.
+	 */
+	private static int roundTrip(String text, EncodeSettings settings) throws IOException {
+		byte[] compressed = TestData.encode(TestData.utf8(text), settings);
+
+		assertEquals(text, new String(TestData.decode(compressed), StandardCharsets.UTF_8));
+
+		return compressed.length > TestData.FIRST_MARKER ? compressed[TestData.FIRST_MARKER] & 0xFF : -1;
+	}
+
+	@Test
+	void substitutionBlock() throws IOException {
+		int marker = roundTrip(TestData.english(200_000), new EncodeSettings());
+
+		assertTrue(marker < HuffmanEncode.INTERLEAVED_BLOCK, "marker " + marker);
+	}
+
+	@Test
+	void interleavedBlock() throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.interleaved = true;
+
+		int marker = roundTrip(TestData.english(200_000), settings);
+
+		assertTrue((marker & HuffmanEncode.INTERLEAVED_BLOCK) != 0 && marker < HuffmanEncode.STORED_BLOCK,
+				"marker " + marker);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 4, 5})
+	void lz77Block(int level) throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+		settings.level = level;
+
+		assertEquals(HuffmanEncode.LZ77_BLOCK, roundTrip(TestData.english(200_000), settings));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {HuffmanEncode.LEVEL_FAST, 1, 3, HuffmanEncode.LEVEL_MAX})
+	void substitutionLevels(int level) throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.level = level;
+
+		roundTrip(TestData.english(100_000), settings);
+	}
+
+	@Test
+	void limitedCodeLength() throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.maxCodeLength = 9;
+
+		StringBuilder strBuild = new StringBuilder(TestData.english(50_000));
+
+		//Chars that occur once or twice get the longest codes, which the limit has to shorten.
+		for (char c = 0x400; c < 0x480; c++) {
+			strBuild.append(c);
+		}
+
+		assertTrue(roundTrip(strBuild.toString(), settings) <= 9);
+	}
+
+	@Test
+	void storedBlock() throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+
+		byte[] data = TestData.randomBytes(100_000);
+		byte[] compressed = TestData.encode(data, settings);
+
+		assertEquals(HuffmanEncode.STORED_BLOCK, compressed[TestData.FIRST_MARKER] & 0xFF);
+		assertArrayEquals(data, TestData.decode(compressed));
+	}
+
+	@Test
+	void storedBlockOfWideChars() throws IOException {
+		StringBuilder strBuild = new StringBuilder();
+		Random random = new Random(42);
+
+		//Chars above 255 are stored in two bytes each.
+		for (int i = 0; i < 50_000; i++) {
+			strBuild.append((char)(0x4E00 + random.nextInt(0x5000)));
+		}
+
+		assertEquals(HuffmanEncode.STORED_BLOCK, roundTrip(strBuild.toString(), new EncodeSettings()));
+	}
+
+	@Test
+	void modelBlock() throws IOException {
+		HuffmanModel model = HuffmanModel.train(TestData.english(100_000));
+		ModelCache.put(model);
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.model = model;
+
+		assertEquals(HuffmanEncode.MODEL_BLOCK, roundTrip("the prince and natasha went to moscow", settings));
+	}
+
+	@Test
+	void emptyText() throws IOException {
+		roundTrip("", new EncodeSettings());
+
+		HuffmanCompressor compressor = new HuffmanCompressor();
+		assertEquals("", new HuffmanDecompressor().decompressString(compressor.compress("")));
+	}
+
+	@Test
+	void oneChar() throws IOException {
+		roundTrip("a", new EncodeSettings());
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+		roundTrip("a", settings);
+	}
+
+	@Test
+	void oneRepeatedChar() throws IOException {
+		String text = "a".repeat(300_000);
+
+		roundTrip(text, new EncodeSettings());
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+		assertEquals(HuffmanEncode.LZ77_BLOCK, roundTrip(text, settings));
+	}
+
+	@Test
+	void surrogatePairs() throws IOException {
+		String text = "café 😀 naïve 𝄞 ".repeat(2000);
+
+		roundTrip(text, new EncodeSettings());
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+		roundTrip(text, settings);
+	}
+
+	@Test
+	void surrogatePairAcrossBlocks() throws IOException {
+
+		//The pair starts on the last char of the first block and ends on the first char of the second.
+		String text = "a".repeat(HuffmanEncode.BLOCK_SIZE - 1) + "😀b";
+
+		roundTrip(text, new EncodeSettings());
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {HuffmanEncode.STAGE_SUBSTITUTION, HuffmanEncode.STAGE_LZ77})
+	void allBytes(int stage) throws IOException {
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+		settings.stage = stage;
+
+		//Every byte value occurs, so substitution has no free chars and LZ77 has to escape with a char above 255.
+		byte[] data = new byte[256 * 200];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte)(i % 256);
+		}
+
+		assertArrayEquals(data, TestData.decode(TestData.encode(data, settings)));
+		assertArrayEquals(data, new HuffmanDecompressor().decompress(new HuffmanCompressor(settings).compress(data)));
+	}
+
+	@Test
+	void everyChar() throws IOException {
+		StringBuilder strBuild = new StringBuilder();
+
+		//Every char but the surrogates, which cannot be written as UTF-8 on their own.
+		for (char c = 0; c < Character.MIN_SURROGATE; c++) {
+			strBuild.append(c);
+		}
+
+		for (char c = Character.MAX_SURROGATE + 1; c != 0; c++) {
+			strBuild.append(c);
+		}
+
+		String text = strBuild.toString();
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.stage = HuffmanEncode.STAGE_LZ77;
+
+		//A text that holds every char leaves LZ77 nothing to escape its matches with, so it is substituted instead.
+		roundTrip(text + text, settings);
+	}
+
+	@Test
+	void manyBlocks() throws IOException {
+		String text = TestData.english(HuffmanEncode.BLOCK_SIZE * 2 + 12345);
+
+		roundTrip(text, new EncodeSettings());
+		assertEquals(text, new HuffmanDecompressor().decompressString(new HuffmanCompressor().compress(text)));
+	}
+
+	@Test
+	void compressorInMemory() throws IOException {
+		HuffmanCompressor compressor = new HuffmanCompressor();
+		HuffmanDecompressor decompressor = new HuffmanDecompressor();
+
+		//The same compressor and decompressor are reused, so nothing may be left over from the block before.
+		for (String text : new String[] {TestData.english(70_000), "x", "", "ééé", TestData.english(5)}) {
+			assertEquals(text, decompressor.decompressString(compressor.compress(text)));
+			assertArrayEquals(TestData.utf8(text), decompressor.decompress(compressor.compress(text)));
+		}
+	}
+
+	@Test
+	void framedPayloads() throws IOException {
+		HuffmanCompressor compressor = new HuffmanCompressor();
+		HuffmanDecompressor decompressor = new HuffmanDecompressor();
+
+		//A payload of one block is framed by one byte, with no magic number, end marker, checksum or index.
+		String text = TestData.english(70_000);
+		byte[] compressed = compressor.compress(text);
+
+		assertEquals(HuffmanEncode.FRAMED_BLOCK + HuffmanEncode.MODE_CHARS, compressed[0] & 0xFF);
+		assertTrue(compressed.length < TestData.encode(TestData.utf8(text), new EncodeSettings()).length);
+
+		//A payload that no block makes smaller is kept as it is.
+		assertArrayEquals(new byte[] {(byte)HuffmanEncode.FRAMED_RAW}, compressor.compress(""));
+		assertEquals(2, compressor.compress("x").length);
+
+		EncodeSettings settings = new EncodeSettings();
+		settings.mode = HuffmanEncode.MODE_BYTES;
+
+		byte[] data = TestData.randomBytes(1000);
+		byte[] raw = new HuffmanCompressor(settings).compress(data);
+
+		assertEquals(HuffmanEncode.FRAMED_RAW + HuffmanEncode.MODE_BYTES, raw[0] & 0xFF);
+		assertEquals(data.length + 1, raw.length);
+		assertArrayEquals(data, decompressor.decompress(raw));
+
+		//A surrogate with no pair cannot be written as UTF-8, so it is always encoded as a block.
+		String unpaired = "\uD800";
+		assertEquals(HuffmanEncode.FRAMED_BLOCK, compressor.compress(unpaired)[0] & 0xFF);
+		assertEquals(unpaired, decompressor.decompressString(compressor.compress(unpaired)));
+	}
+
+	@Test
+	void streams() throws IOException {
+		String text = TestData.english(HuffmanEncode.BLOCK_SIZE + 5000);
+		byte[] bytes = TestData.utf8(text);
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		HuffmanOutputStream out = new HuffmanOutputStream(compressed);
+
+		//Write in pieces that do not line up with the blocks.
+		for (int i = 0; i < bytes.length; i += 7777) {
+			out.write(bytes, i, Math.min(7777, bytes.length - i));
+		}
+
+		out.write('!');
+		out.close();
+
+		HuffmanInputStream in = new HuffmanInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+		ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+		decompressed.write(in.read());
+
+		byte[] buffer = new byte[4096];
+		int n;
+
+		while ((n = in.read(buffer)) != -1) {
+			decompressed.write(buffer, 0, n);
+		}
+
+		in.close();
+
+		assertEquals(text + "!", new String(decompressed.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void files() throws IOException {
+		String text = TestData.english(HuffmanEncode.BLOCK_SIZE + 777);
+		File input = TestData.write(directory.toFile(), "input.txt", TestData.utf8(text));
+		File compressed = new File(directory.toFile(), "input.huf");
+		File output = new File(directory.toFile(), "output.txt");
+
+		HuffmanEncode.encode(input, compressed);
+		HuffmanDecode.decode(compressed, output);
+
+		assertEquals(text, new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 100_000})
+	void adaptive(int length) throws IOException {
+		byte[] data = TestData.utf8(TestData.english(length));
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		AdaptiveHuffman.compress(new ByteArrayInputStream(data), compressed);
+
+		ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+		AdaptiveHuffman.decompress(new ByteArrayInputStream(compressed.toByteArray()), decompressed);
+
+		assertArrayEquals(data, decompressed.toByteArray());
+	}
+
+	@Test
+	void adaptiveRandomBytes() throws IOException {
+		byte[] data = TestData.randomBytes(100_000);
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		AdaptiveHuffman.compress(new ByteArrayInputStream(data), compressed);
+
+		ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+		AdaptiveHuffman.decompress(new ByteArrayInputStream(compressed.toByteArray()), decompressed);
+
+		assertArrayEquals(data, decompressed.toByteArray());
+	}
+}
@@ -0,0 +1,112 @@
+package huffman;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * date: 10/17/2026
+ * description: This class is used to make the texts the tests compress, and to compress and decompress them through
+ * the block format held in memory. Every text is made from a fixed seed, so a failing test fails the same way each
+ * time it is run.
+ */
+final class TestData {
+
+	private static final String[] WORDS = {
+		"the", "of", "and", "to", "a", "in", "that", "he", "was", "his", "it", "with", "had", "is", "for", "as", "not",
+		"prince", "pierre", "natasha", "moscow", "army", "battle", "emperor", "countess", "something", "understand"
+	};
+
+	//The offset of the longest code length of the first block, which marks what kind of block it is.
+	static final int FIRST_MARKER = 17;
+
+	private TestData() {
+	}
+
+	/**
+	 * @param length The number of chars in the text.
+	 * @return A text of words and punctuation, which substitution and LZ77 both compress well.
+	 */
+	static String english(int length) {
+		Random random = new Random(42);
+		StringBuilder strBuild = new StringBuilder(length + 16);
+
+		while (strBuild.length() < length) {
+			strBuild.append(WORDS[random.nextInt(WORDS.length)]);
+			strBuild.append(random.nextInt(12) == 0 ? ".\n" : " ");
+		}
+
+		strBuild.setLength(length);
+
+		return strBuild.toString();
+	}
+
+	/**
+	 * @param length The number of bytes.
+	 * @return Random bytes, which no stage can compress.
+	 */
+	static byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		new Random(42).nextBytes(bytes);
+
+		return bytes;
+	}
+
+	/**
+	 * @param text A text.
+	 * @return The text as UTF-8.
+	 */
+	static byte[] utf8(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Compresses bytes through HuffmanEncode, which always writes the whole block format.
+	 * @param input The bytes to compress, which are UTF-8 text in chars mode.
+	 * @param settings The settings to compress with.
+	 * @return The compressed file.
+	 * @throws IOException If the bytes could not be compressed.
+	 */
+	static byte[] encode(byte[] input, EncodeSettings settings) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		HuffmanEncode.encode(new ByteArrayInputStream(input), output, ForkJoinPool.commonPool(), settings);
+
+		return output.toByteArray();
+	}
+
+	/**
+	 * Decompresses a compressed file through HuffmanDecode.
+	 * @param compressed The compressed file.
+	 * @return The text as UTF-8, or the raw bytes for a file compressed in bytes mode.
+	 * @throws IOException If the compressed file could not be read.
+	 */
+	static byte[] decode(byte[] compressed) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		HuffmanDecode.decode(new ByteArrayInputStream(compressed), output);
+
+		return output.toByteArray();
+	}
+
+	/**
+	 * Writes bytes to a new file in a directory.
+	 * @param directory The directory.
+	 * @param name The name of the file.
+	 * @param bytes The bytes of the file.
+	 * @return The file.
+	 * @throws IOException If the file could not be written.
+	 */
+	static File write(File directory, String name, byte[] bytes) throws IOException {
+		File file = new File(directory, name);
+		FileOutputStream out = new FileOutputStream(file);
+
+		try {
+			out.write(bytes);
+		}
+		finally {
+			out.close();
+		}
+
+		return file;
+	}
+}